@@ -0,0 +1,115 @@
+package com.dilax.mobile.model.network.util;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * List of pairs stored as two parallel arrays, one for the first and one for the second elements, so a pair costs
+ * two slots instead of an object. Subclasses choose the array types and create the pairs returned by get(), which
+ * are new objects at every call: compare them with equals(), not by identity.
+ */
+public abstract class AbstractPairList<P> extends AbstractList<P> implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    Object firsts;
+
+    Object seconds;
+
+    int size;
+
+    protected AbstractPairList(final Class<?> firstType, final Class<?> secondType, final int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(Utils.format("Negative capacity: {}", capacity));
+        }
+        this.firsts = Array.newInstance(firstType, capacity);
+        this.seconds = Array.newInstance(secondType, capacity);
+    }
+
+    protected AbstractPairList(final Class<?> firstType, final Class<?> secondType) {
+        this(firstType, secondType, DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public P remove(final int index) {
+        P removed = get(index);
+        System.arraycopy(firsts, index + 1, firsts, index, size - index - 1);
+        System.arraycopy(seconds, index + 1, seconds, index, size - index - 1);
+        size--;
+        release(size, size + 1);
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        release(0, size);
+        size = 0;
+        modCount++;
+    }
+
+    public void ensureCapacity(final int capacity) {
+        int length = Array.getLength(firsts);
+        if (capacity > length) {
+            resize(Math.max(capacity, length + (length >> 1) + 1));
+        }
+    }
+
+    public void trimToSize() {
+        if (size < Array.getLength(firsts)) {
+            resize(size);
+        }
+    }
+
+    /**
+     * Makes room for a pair at the given index, shifting the following ones.
+     * @return the index to write
+     */
+    protected int reserve(final int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(Utils.format("Index: {}, size: {}", index, size));
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(firsts, index, firsts, index + 1, size - index);
+        System.arraycopy(seconds, index, seconds, index + 1, size - index);
+        size++;
+        modCount++;
+        return index;
+    }
+
+    protected int checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(Utils.format("Index: {}, size: {}", index, size));
+        }
+        return index;
+    }
+
+    private void resize(final int capacity) {
+        Object newFirsts = Array.newInstance(firsts.getClass().getComponentType(), capacity);
+        Object newSeconds = Array.newInstance(seconds.getClass().getComponentType(), capacity);
+        System.arraycopy(firsts, 0, newFirsts, 0, size);
+        System.arraycopy(seconds, 0, newSeconds, 0, size);
+        firsts = newFirsts;
+        seconds = newSeconds;
+    }
+
+    /**
+     * Drops the references held between the given indexes, if the arrays hold objects.
+     */
+    private void release(final int from, final int to) {
+        if (firsts instanceof Object[]) {
+            Arrays.fill((Object[]) firsts, from, to, null);
+        }
+        if (seconds instanceof Object[]) {
+            Arrays.fill((Object[]) seconds, from, to, null);
+        }
+    }
+
+}
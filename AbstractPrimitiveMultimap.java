@@ -0,0 +1,158 @@
+package com.dilax.mobile.model.network.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Multimap from primitive keys to values, without a boxed key or a collection per key. Subclasses map every distinct
+ * key to a group number with an open addressing table; the values of all the groups share one array. Values are
+ * appended in insertion order and sorted by group, stably, before the first read after a put, so every group is a
+ * contiguous range of the array and keeps the insertion order. The multimap is meant to be filled once and read many
+ * times: interleaving puts and reads sorts again at every read after a put.
+ */
+public abstract class AbstractPrimitiveMultimap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] values;
+
+    private int[] valueGroups;
+
+    private int size;
+
+    private int[] groupSizes;
+
+    private int groupCount;
+
+    /** Start of every group in the sorted values, followed by the size. Null if the values are not sorted. */
+    private int[] offsets;
+
+    protected AbstractPrimitiveMultimap(final int expectedKeys, final int expectedValues) {
+        if (expectedKeys < 0 || expectedValues < 0) {
+            throw new IllegalArgumentException(Utils.format("Negative capacity: {}, {}", expectedKeys,
+                expectedValues));
+        }
+        this.values = new Object[expectedValues];
+        this.valueGroups = new int[expectedValues];
+        this.groupSizes = new int[expectedKeys];
+    }
+
+    /**
+     * The number of values.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * The number of distinct keys.
+     */
+    public int keyCount() {
+        return groupCount;
+    }
+
+    /**
+     * The number of values of the group, without sorting them. Zero for a negative group.
+     */
+    protected int getGroupSize(final int group) {
+        return group < 0 ? 0 : groupSizes[group];
+    }
+
+    /**
+     * @return the number of the new group, counting from zero in order of creation
+     */
+    protected int addGroup() {
+        if (groupCount == groupSizes.length) {
+            groupSizes = Arrays.copyOf(groupSizes, Math.max(DEFAULT_CAPACITY, groupCount * 2));
+        }
+        return groupCount++;
+    }
+
+    protected void addToGroup(final int group, final V value) {
+        if (size == values.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, size + (size >> 1));
+            values = Arrays.copyOf(values, capacity);
+            valueGroups = Arrays.copyOf(valueGroups, capacity);
+        }
+        values[size] = value;
+        valueGroups[size] = group;
+        size++;
+        groupSizes[group]++;
+        offsets = null;
+    }
+
+    /**
+     * An unmodifiable view of the values of the group, or an empty list for a negative group.
+     */
+    protected List<V> getGroup(final int group) {
+        if (group < 0) {
+            return Collections.emptyList();
+        }
+        if (offsets == null) {
+            sort();
+        }
+        return new Group<V>(values, offsets[group], offsets[group + 1]);
+    }
+
+    /**
+     * Sorts the values by group with a counting sort, which keeps the insertion order inside every group.
+     */
+    private void sort() {
+        int[] starts = new int[groupCount + 1];
+        for (int group = 0; group < groupCount; group++) {
+            starts[group + 1] = starts[group] + groupSizes[group];
+        }
+        int[] positions = Arrays.copyOf(starts, groupCount);
+        Object[] sortedValues = new Object[values.length];
+        for (int i = 0; i < size; i++) {
+            int group = valueGroups[i];
+            sortedValues[positions[group]++] = values[i];
+        }
+        for (int group = 0; group < groupCount; group++) {
+            Arrays.fill(valueGroups, starts[group], starts[group + 1], group);
+        }
+        values = sortedValues;
+        offsets = starts;
+    }
+
+    /**
+     * A range of the sorted values. Later puts sort into a new array, so the group does not change.
+     */
+    private static class Group<V> extends AbstractList<V> implements RandomAccess {
+
+        private final Object[] array;
+
+        private final int from;
+
+        private final int to;
+
+        private Group(final Object[] array, final int from, final int to) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(final int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException(Utils.format("Index: {}, size: {}", index, to - from));
+            }
+            return (V) array[from + index];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.dilax.mobile.model.network.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import ch.lambdaj.Lambda;
+import ch.lambdaj.function.argument.Argument;
+import ch.lambdaj.function.convert.Converter;
+import ch.lambdaj.util.IntrospectionUtil;
+
+import com.google.common.base.Function;
+import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+
+/**
+ * Getter compiled from a lambdaj argument like on(Trip.class).getVehicle().getId(). The chain of getters is
+ * resolved once into a chain of method handles, which are cached per argument, so evaluating an element costs direct
+ * calls instead of a reflective lambdaj dispatch. Like lambdaj, a null along the chain evaluates to null. Arguments
+ * with parameters, like on(Route.class).getStop(0), are evaluated through lambdaj, a decision cached per argument too.
+ */
+public class Accessor<C, A> implements Function<C, A>, Converter<C, A> {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /** Bounds the cache, as arguments with parameters make an entry per parameter value. */
+    private static final int MAX_CACHED_ARGUMENTS = 4096;
+
+    /** Cached for the arguments evaluated through lambdaj. */
+    private static final MethodHandle[] NOT_COMPILED = new MethodHandle[0];
+
+    /** Getters by argument, which are equal when they invoke the same methods with the same parameters. */
+    private static final Cache<Argument<?>, MethodHandle[]> CACHE = CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_ARGUMENTS).build();
+
+    private final Argument<A> argument;
+
+    private final MethodHandle[] getters;
+
+    private Accessor(final Argument<A> argument, final MethodHandle[] getters) {
+        this.argument = argument;
+        this.getters = getters;
+    }
+
+    /**
+     * @param field a lambdaj argument
+     * @throws IllegalArgumentException if the field is not a lambdaj argument
+     */
+    public static <C, A> Accessor<C, A> of(final A field) {
+        Argument<A> argument;
+        try {
+            argument = Lambda.argument(field);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(Utils.format("Not a lambdaj argument: {}", field), e);
+        }
+        return new Accessor<C, A>(argument, compile(argument));
+    }
+
+    public A get(final C element) {
+        if (getters == null) {
+            return argument.evaluate(element);
+        }
+        Object value = element;
+        for (MethodHandle getter : getters) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                value = getter.invokeExact(value);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable throwable) {
+                throw new IllegalStateException(Utils.format("Cannot evaluate {} on {}", argument, value), throwable);
+            }
+        }
+        @SuppressWarnings("unchecked")
+        A result = (A) value;
+        return result;
+    }
+
+    @Override
+    public A apply(final C element) {
+        return get(element);
+    }
+
+    @Override
+    public A convert(final C element) {
+        return get(element);
+    }
+
+    public Argument<A> getArgument() {
+        return argument;
+    }
+
+    @Override
+    public String toString() {
+        return argument.toString();
+    }
+
+    /**
+     * Returns null if the argument cannot be compiled.
+     */
+    private static MethodHandle[] compile(final Argument<?> argument) {
+        MethodHandle[] getters = CACHE.getIfPresent(argument);
+        if (getters == null) {
+            getters = resolve(argument);
+            CACHE.put(argument, getters == null ? NOT_COMPILED : getters);
+        }
+        return getters == NOT_COMPILED ? null : getters;
+    }
+
+    /**
+     * Returns null if the argument cannot be compiled. lambdaj does not expose the invocations of an argument, only
+     * its root class and its dotted property name, so the chain of getters is looked up from them and accepted only if
+     * it prints the same as the argument, which lists the invoked methods and the arguments passed to them.
+     */
+    private static MethodHandle[] resolve(final Argument<?> argument) {
+        List<Method> methods = Lists.newArrayList();
+        Class<?> type = argument.getRootArgumentClass();
+        for (String property : argument.getInkvokedPropertyName().split("\\.")) {
+            Method method = findGetter(type, property);
+            if (method == null) {
+                return null;
+            }
+            methods.add(method);
+            type = method.getReturnType();
+        }
+        if (!argument.toString().equals("[" + Joiner.on(", ").join(methods) + "]")) {
+            return null;
+        }
+        MethodHandle[] getters = new MethodHandle[methods.size()];
+        for (int i = 0; i < getters.length; i++) {
+            getters[i] = unreflect(methods.get(i));
+            if (getters[i] == null) {
+                return null;
+            }
+        }
+        return getters;
+    }
+
+    /**
+     * The public method without parameters of the property, named like getX(), isX() or x().
+     */
+    private static Method findGetter(final Class<?> type, final String property) {
+        for (Method method : type.getMethods()) {
+            if (method.getParameterTypes().length == 0 && !method.isBridge() && method.getReturnType() != void.class
+                && property.equals(IntrospectionUtil.getPropertyName(method))) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandle unreflect(final Method method) {
+        try {
+            return MethodHandles.publicLookup().unreflect(method).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            // A public method of a class that is not public, like an anonymous or nested implementation.
+            try {
+                method.setAccessible(true);
+                return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+            } catch (RuntimeException exception) {
+                return null;
+            } catch (IllegalAccessException exception) {
+                return null;
+            }
+        }
+    }
+
+}
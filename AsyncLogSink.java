@@ -0,0 +1,371 @@
+package com.dilax.mobile.model.network.util;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+
+import com.dilax.mobile.model.network.util.LoggerWrapper.Level;
+
+/**
+ * Moves formatting and writing of log messages to a background thread. Callers claim a slot of a lock-free ring
+ * buffer and store the message template and its arguments, the background thread formats them in batches and writes
+ * them to the SLF4J logger. Arguments are formatted later on the background thread, so they should not change after
+ * the call. When the buffer is full the overflow policy decides whether the caller waits or the message is dropped.
+ * <p>
+ * The sink is flushed by a shutdown hook. After close() the wrappers using it log synchronously again.
+ * @see LoggerWrapper#LoggerWrapper(Logger, AsyncLogSink)
+ */
+public class AsyncLogSink implements Closeable {
+
+    public enum OverflowPolicy {
+        /** The caller waits for a free slot. */
+        BLOCK,
+        /** The message is dropped. */
+        DROP,
+        /** One message every sample rate waits for a free slot, the others are dropped. */
+        SAMPLE
+    }
+
+    private static final int BATCH_SIZE = 256;
+
+    /** Pause of the callers waiting for a free slot or for a flush. */
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    private static final long STOPPED = -2;
+
+    private final Event[] events;
+
+    /** For every slot, the position that may write it, or that position plus one once it is readable. */
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    private final OverflowPolicy policy;
+
+    private final int sampleRate;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong queued = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong overflows = new AtomicLong();
+
+    /** Callers inside enqueue(), which the background thread waits for before stopping. */
+    private final AtomicInteger producers = new AtomicInteger();
+
+    private final Thread worker;
+
+    private final Thread shutdownHook;
+
+    private volatile long head;
+
+    private volatile boolean isClosed;
+
+    /** Set by the background thread before parking, so that callers only unpark it when it may be waiting. */
+    private volatile boolean isParked;
+
+    private AsyncLogSink(final int capacity, final OverflowPolicy policy, final int sampleRate) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException(Utils.format("Capacity must be a power of two: {}", capacity));
+        }
+        if (policy == null || sampleRate < 1) {
+            throw new IllegalArgumentException(Utils.format("Invalid overflow policy: {}, {}", policy, sampleRate));
+        }
+        this.events = new Event[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new Event();
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.policy = policy;
+        this.sampleRate = sampleRate;
+        this.worker = new Thread(new Runnable(){
+
+            @Override
+            public void run() {
+                drain();
+            }
+
+        }, "async-log-sink");
+        this.worker.setDaemon(true);
+        this.shutdownHook = new Thread(new Runnable(){
+
+            @Override
+            public void run() {
+                close();
+            }
+
+        }, "async-log-sink-shutdown");
+    }
+
+    /**
+     * @param capacity a power of two
+     */
+    public static AsyncLogSink start(final int capacity, final OverflowPolicy policy) {
+        return start(capacity, policy, 1);
+    }
+
+    /**
+     * @param capacity a power of two
+     * @param sampleRate used by {@link OverflowPolicy#SAMPLE}
+     */
+    public static AsyncLogSink start(final int capacity, final OverflowPolicy policy, final int sampleRate) {
+        AsyncLogSink sink = new AsyncLogSink(capacity, policy, sampleRate);
+        Runtime.getRuntime().addShutdownHook(sink.shutdownHook);
+        sink.worker.start();
+        return sink;
+    }
+
+    /**
+     * Messages accepted by the sink since its start.
+     */
+    public long getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Messages lost because the buffer was full or because they could not be written.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Messages accepted but not written yet.
+     */
+    public long getPendingCount() {
+        return Math.max(0, tail.get() - head);
+    }
+
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    /**
+     * Waits until the messages accepted so far are written.
+     */
+    public void flush() {
+        long position = tail.get();
+        while (head < position && worker.isAlive()) {
+            LockSupport.parkNanos(this, PARK_NANOS);
+        }
+    }
+
+    /**
+     * Writes the pending messages and stops the background thread, once the callers that found the sink open have
+     * stored their message.
+     */
+    @Override
+    public synchronized void close() {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        LockSupport.unpark(worker);
+        boolean isInterrupted = false;
+        while (worker.isAlive() && Thread.currentThread() != worker) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+        // Only when closed by the background thread itself, which cannot wait for its own end.
+        StringBuilder builder = new StringBuilder(256);
+        while (head != tail.get()) {
+            if (writeBatch(builder) == 0) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        }
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down.
+            }
+        }
+    }
+
+    /**
+     * Stores a message for the background thread. Suppliers must be already resolved.
+     * @return false if the sink is closed, or if the caller is the background thread logging from a toString(), which
+     *         cannot wait for itself: the caller should write the message itself
+     */
+    boolean enqueue(final Logger log, final Level level, final Throwable throwable, final String message,
+        final int count, final Object first, final Object second, final Object third, final Object[] objects) {
+        if (Thread.currentThread() == worker) {
+            return false;
+        }
+        // Registered before checking isClosed, so close() either is seen here or waits for the message.
+        producers.incrementAndGet();
+        try {
+            if (isClosed) {
+                return false;
+            }
+            return publish(log, level, throwable, message, count, first, second, third, objects);
+        } finally {
+            if (producers.decrementAndGet() == 0 && isClosed) {
+                LockSupport.unpark(worker);
+            }
+        }
+    }
+
+    private boolean publish(final Logger log, final Level level, final Throwable throwable, final String message,
+        final int count, final Object first, final Object second, final Object third, final Object[] objects) {
+        long position = claim();
+        if (position == STOPPED) {
+            return false;
+        }
+        if (position < 0) {
+            dropped.incrementAndGet();
+            return true;
+        }
+        int index = (int) position & mask;
+        Event event = events[index];
+        event.log = log;
+        event.level = level;
+        event.throwable = throwable;
+        event.message = message;
+        event.count = count;
+        event.first = first;
+        event.second = second;
+        event.third = third;
+        event.objects = objects;
+        // Publishes the event fields to the background thread. A volatile write, ordered before reading isParked.
+        sequences.set(index, position + 1);
+        queued.incrementAndGet();
+        if (isParked) {
+            LockSupport.unpark(worker);
+        }
+        return true;
+    }
+
+    /**
+     * @return the claimed position, -1 if the message has to be dropped or STOPPED if the background thread died
+     */
+    private long claim() {
+        boolean isWaiting = false;
+        while (true) {
+            long position = tail.get();
+            long sequence = sequences.get((int) position & mask);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (sequence < position) {
+                // Full: the slot still holds the message of the previous lap.
+                if (!isWaiting) {
+                    if (policy == OverflowPolicy.DROP || policy == OverflowPolicy.SAMPLE
+                        && overflows.getAndIncrement() % sampleRate != 0) {
+                        return -1;
+                    }
+                    isWaiting = true;
+                }
+                if (!worker.isAlive()) {
+                    return STOPPED;
+                }
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        }
+    }
+
+    private void drain() {
+        StringBuilder builder = new StringBuilder(256);
+        while (true) {
+            if (writeBatch(builder) > 0) {
+                continue;
+            }
+            if (isStopping()) {
+                return;
+            }
+            isParked = true;
+            // Checked again after isParked is visible, as callers publishing before it did not unpark.
+            if (!isReadable(head) && !isStopping()) {
+                LockSupport.park(this);
+            }
+            isParked = false;
+        }
+    }
+
+    /**
+     * Closed, with no caller left inside enqueue() and every claimed message written.
+     */
+    private boolean isStopping() {
+        return isClosed && producers.get() == 0 && head == tail.get();
+    }
+
+    private boolean isReadable(final long position) {
+        return sequences.get((int) position & mask) == position + 1;
+    }
+
+    private int writeBatch(final StringBuilder builder) {
+        int written = 0;
+        long position = head;
+        while (written < BATCH_SIZE) {
+            int index = (int) position & mask;
+            if (!isReadable(position)) {
+                break;
+            }
+            Event event = events[index];
+            try {
+                builder.setLength(0);
+                LoggerWrapper.print(event.log, event.level, builder, event.throwable, event.message, event.count,
+                    event.first, event.second, event.third, event.objects);
+            } catch (Throwable e) {
+                // Even an Error thrown by a toString() must not stop the thread, which would lose the pending messages.
+                dropped.incrementAndGet();
+            }
+            event.clear();
+            sequences.lazySet(index, position + events.length);
+            position++;
+            head = position;
+            written++;
+        }
+        return written;
+    }
+
+    private static class Event {
+
+        private Logger log;
+
+        private Level level;
+
+        private Throwable throwable;
+
+        private String message;
+
+        private int count;
+
+        private Object first;
+
+        private Object second;
+
+        private Object third;
+
+        private Object[] objects;
+
+        private void clear() {
+            log = null;
+            level = null;
+            throwable = null;
+            message = null;
+            first = null;
+            second = null;
+            third = null;
+            objects = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.dilax.mobile.model.network.util;
+
+/**
+ * Read-only window on a character sequence, usually a String, that shares its characters instead of copying them like
+ * substring() does. Slicing a slice gives another window on the same characters. appendTo() copies the characters
+ * straight from the backing sequence into a builder, and toString() is the only method creating a String. Slices are
+ * equal when they have the same characters and hash like the equivalent String.
+ */
+public final class CharSlice implements CharSequence {
+
+    private static final CharSlice EMPTY = new CharSlice("", 0, 0);
+
+    private final CharSequence sequence;
+
+    private final int offset;
+
+    private final int length;
+
+    private int hash;
+
+    private CharSlice(final CharSequence sequence, final int offset, final int length) {
+        this.sequence = sequence;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public static CharSlice of(final CharSequence sequence) {
+        return of(sequence, 0, sequence.length());
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the indexes are not within the sequence
+     */
+    public static CharSlice of(final CharSequence sequence, final int start, final int end) {
+        checkBounds(start, end, sequence.length());
+        if (start == end) {
+            return EMPTY;
+        }
+        if (sequence instanceof CharSlice) {
+            CharSlice slice = (CharSlice) sequence;
+            return new CharSlice(slice.sequence, slice.offset + start, end - start);
+        }
+        return new CharSlice(sequence, start, end - start);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(Utils.format("Index: {}, length: {}", index, length));
+        }
+        return sequence.charAt(offset + index);
+    }
+
+    @Override
+    public CharSlice subSequence(final int start, final int end) {
+        return of(this, start, end);
+    }
+
+    /**
+     * Appends the characters without creating a String.
+     */
+    public StringBuilder appendTo(final StringBuilder builder) {
+        return builder.append(sequence, offset, offset + length);
+    }
+
+    public boolean contentEquals(final CharSequence other) {
+        if (other.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (sequence.charAt(offset + i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        return object instanceof CharSlice && contentEquals((CharSlice) object);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = hash;
+        if (result == 0) {
+            for (int i = 0; i < length; i++) {
+                result = 31 * result + sequence.charAt(offset + i);
+            }
+            hash = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return sequence.subSequence(offset, offset + length).toString();
+    }
+
+    private static void checkBounds(final int start, final int end, final int length) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException(Utils.format("Start: {}, end: {}, length: {}", start, end, length));
+        }
+    }
+
+}
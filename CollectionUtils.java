@@ -1,22 +1,15 @@
 package com.dilax.mobile.model.network.util;
 
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
 import org.apache.commons.lang.ArrayUtils;
-import org.apache.commons.lang.NotImplementedException;
 import org.slf4j.helpers.MessageFormatter;
 
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Ordering;
-import com.google.common.collect.TreeMultimap;
 
 public class CollectionUtils {
 
@@ -114,7 +107,6 @@ public class CollectionUtils {
         return getWindowIterator(collection, true);
     }
 
-    // TODO implementation could be faster or take less resources
     private static <C> Iterator<TwinPair<C>> getWindowIterator(final Collection<C> collection, final boolean isPadded) {
         if (isNullOrEmpty(collection)) {
             throw new IllegalArgumentException("Collection cannot be null or empty.");
@@ -122,32 +114,7 @@ public class CollectionUtils {
         if (collection.size() < 2) {
             throw new IllegalArgumentException("Collection must have size at least two.");
         }
-        List<C> firstList = isPadded ? Lists.newArrayList(collection) : Lists.newArrayList(Iterables.limit(collection,
-            collection.size() - 1));
-        List<C> secondList = Lists.newArrayList(Iterables.skip(collection, 1));
-        if (isPadded) {
-            secondList.add(null);
-        }
-        final Iterator<Pair<C, C>> iterator = getPairedIterator(firstList, secondList);
-        return new Iterator<TwinPair<C>>(){
-
-            @Override
-            public boolean hasNext() {
-                return iterator.hasNext();
-            }
-
-            @Override
-            public TwinPair<C> next() {
-                return TwinPair.from(iterator.next());
-            }
-
-            @Override
-            public void remove() {
-                throw new NotImplementedException();
-
-            }
-
-        };
+        return WindowIterator.pairs(collection.iterator(), isPadded);
     }
 
     public static boolean isNullOrEmpty(final Object object) {
@@ -214,12 +181,7 @@ public class CollectionUtils {
             throw new IllegalArgumentException(MessageFormatter.format("Null or empty arguments: {}, {} ", collection,
                 ordering).getMessage());
         }
-        @SuppressWarnings("unchecked")
-        Multimap<Integer, C> result = TreeMultimap.create(ordering, (Comparator<C>) Ordering.natural());
-        for (C element : collection) {
-            result.put(Collections.frequency(collection, element), element);
-        }
-        return result;
+        return FrequencyCounter.from(collection).getFrequencyMultimap(ordering);
     }
 
     // TODO this is not lambda stuff
@@ -228,9 +190,67 @@ public class CollectionUtils {
             throw new IllegalArgumentException(MessageFormatter.format("Null or empty arguments: {}, {} ", collection)
                 .getMessage());
         }
-        Ordering<Integer> reverseIntegerOrdering = Ordering.natural().reverse();
-        Multimap<Integer, C> frequencyMap = getFrequencyMultimap(collection, reverseIntegerOrdering);
-        return frequencyMap.get(Iterables.getFirst(frequencyMap.keySet(), null));
+        return FrequencyCounter.from(collection).getMostFrequentElements();
+    }
+
+    /**
+     * Returns the k most frequent elements keyed by frequency, highest first.
+     * @param collection
+     * @param k
+     * @return
+     */
+    public static <C> Multimap<Integer, C> getMostFrequentElements(final Collection<C> collection, final int k) {
+        if (CollectionUtils.isNullOrEmpty(collection)) {
+            throw new IllegalArgumentException(MessageFormatter.format("Null or empty arguments: {} ", collection)
+                .getMessage());
+        }
+        return FrequencyCounter.from(collection).getTopElements(k);
+    }
+
+    /**
+     * Like getFrequencyMultimap(), in bounded memory over input that may not fit in a collection, with frequencies
+     * overestimated by at most maxError times the number of elements. See HeavyHitters.
+     */
+    public static <C> Multimap<Integer, C> getApproximateFrequencyMultimap(final Iterator<C> iterator,
+        final Ordering<Integer> ordering, final double maxError) {
+        if (iterator == null || ordering == null) {
+            throw new IllegalArgumentException(MessageFormatter.format("Null arguments: {}, {} ", iterator, ordering)
+                .getMessage());
+        }
+        return count(iterator, maxError).getFrequencyMultimap(ordering);
+    }
+
+    /**
+     * Like getMostFrequentElements(), in bounded memory, by frequencies overestimated by at most maxError times the
+     * number of elements. See HeavyHitters.
+     */
+    public static <C> Collection<C> getApproximateMostFrequentElements(final Iterator<C> iterator,
+        final double maxError) {
+        return count(iterator, maxError).getMostFrequentElements();
+    }
+
+    /**
+     * Like getMostFrequentElements(collection, k), in bounded memory, by frequencies overestimated by at most maxError
+     * times the number of elements. See HeavyHitters.
+     */
+    public static <C> Multimap<Integer, C> getApproximateMostFrequentElements(final Iterator<C> iterator, final int k,
+        final double maxError) {
+        return count(iterator, maxError).getTopElements(k);
+    }
+
+    private static <C> HeavyHitters<C> count(final Iterator<C> iterator, final double maxError) {
+        if (iterator == null || !iterator.hasNext()) {
+            throw new IllegalArgumentException(MessageFormatter.format("Null or empty arguments: {} ", iterator)
+                .getMessage());
+        }
+        HeavyHitters<C> summary = HeavyHitters.withMaxError(maxError);
+        summary.addAll(iterator);
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <C> Ordering<C> naturalOrdering() {
+        return (Ordering<C>) (Ordering<?>) Ordering.natural();
     }
 
 }
@@ -0,0 +1,164 @@
+package com.dilax.mobile.model.network.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+
+/**
+ * Multimap that several threads can fill at the same time, like the result of LambdaUtils.multiIndex() built from
+ * batches decoded in parallel. Keys are held by a ConcurrentHashMap and every key has its own lock, taken only to add
+ * values, so writers of different keys never wait for each other. Values are kept in append-only arrays whose filled
+ * prefix never changes: get() returns a snapshot of the values added so far without locking or copying, and readers
+ * never block writers. Values of a key keep the order in which they were added; keys have no order and cannot be null.
+ */
+public class ConcurrentMultimap<K, V> {
+
+    private static final int INITIAL_GROUP_CAPACITY = 4;
+
+    private final ConcurrentMap<K, Group<V>> groups;
+
+    private final LongAdder size = new LongAdder();
+
+    private ConcurrentMultimap(final int expectedKeys) {
+        this.groups = new ConcurrentHashMap<K, Group<V>>(expectedKeys);
+    }
+
+    public static <K, V> ConcurrentMultimap<K, V> create() {
+        return new ConcurrentMultimap<K, V>(16);
+    }
+
+    public static <K, V> ConcurrentMultimap<K, V> create(final int expectedKeys) {
+        return new ConcurrentMultimap<K, V>(expectedKeys);
+    }
+
+    public void put(final K key, final V value) {
+        getGroup(key).add(value);
+        size.increment();
+    }
+
+    public void putAll(final K key, final Iterable<? extends V> values) {
+        Group<V> group = getGroup(key);
+        for (V value : values) {
+            group.add(value);
+            size.increment();
+        }
+    }
+
+    /**
+     * Indexes the batch by the field, like LambdaUtils.multiIndex(), into this multimap. Can be called by several
+     * threads at the same time.
+     */
+    public void index(final Iterable<? extends V> batch, final K keyField) {
+        Accessor<V, K> keyAccessor = Accessor.of(keyField);
+        for (V element : batch) {
+            put(keyAccessor.get(element), element);
+        }
+    }
+
+    /**
+     * Indexes the batch by the key field, like LambdaUtils.multiIndexAndConvert(), into this multimap. Can be called
+     * by several threads at the same time.
+     */
+    public <T> void indexAndConvert(final Iterable<T> batch, final K keyField, final V valueField) {
+        Accessor<T, K> keyAccessor = Accessor.of(keyField);
+        Accessor<T, V> valueAccessor = Accessor.of(valueField);
+        for (T element : batch) {
+            put(keyAccessor.get(element), valueAccessor.get(element));
+        }
+    }
+
+    /**
+     * The values of the key added so far, as an unmodifiable list that later additions do not change.
+     */
+    public List<V> get(final K key) {
+        Group<V> group = groups.get(key);
+        return group == null ? Collections.<V> emptyList() : group.snapshot();
+    }
+
+    public boolean containsKey(final K key) {
+        return groups.containsKey(key);
+    }
+
+    /**
+     * The keys, as a view that sees keys added during the iteration or not.
+     */
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(groups.keySet());
+    }
+
+    public int keyCount() {
+        return groups.size();
+    }
+
+    /**
+     * The number of values, exact when no value is being added.
+     */
+    public long size() {
+        return size.sum();
+    }
+
+    public boolean isEmpty() {
+        return groups.isEmpty();
+    }
+
+    /**
+     * Copies the values added so far into an ArrayListMultimap. The values of every key are a snapshot, but values
+     * added to other keys during the copy may or may not be included.
+     */
+    public Multimap<K, V> toMultimap() {
+        Multimap<K, V> result = ArrayListMultimap.create();
+        for (Map.Entry<K, Group<V>> entry : groups.entrySet()) {
+            result.putAll(entry.getKey(), entry.getValue().snapshot());
+        }
+        return result;
+    }
+
+    private Group<V> getGroup(final K key) {
+        Group<V> group = groups.get(key);
+        if (group == null) {
+            Group<V> newGroup = new Group<V>();
+            group = groups.putIfAbsent(key, newGroup);
+            if (group == null) {
+                group = newGroup;
+            }
+        }
+        return group;
+    }
+
+    private static class Group<V> {
+
+        private volatile Object[] values = new Object[INITIAL_GROUP_CAPACITY];
+
+        /** Written after the values, so readers of the size see them. */
+        private volatile int size;
+
+        private synchronized void add(final V value) {
+            Object[] array = values;
+            int count = size;
+            if (count == array.length) {
+                array = Arrays.copyOf(array, count * 2);
+                values = array;
+            }
+            array[count] = value;
+            size = count + 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<V> snapshot() {
+            int count = size;
+            // Read after the size: the array is the one the last value was written to, or a larger copy of it.
+            Object[] array = values;
+            return Collections.unmodifiableList((List<V>) Arrays.asList(array).subList(0, count));
+        }
+
+    }
+
+}
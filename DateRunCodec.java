@@ -0,0 +1,335 @@
+package com.dilax.mobile.model.network.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import org.joda.time.LocalDate;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Encodes dates as runs of consecutive days, in the text format of Utils.generateCodeFromDates() or in a compact
+ * binary format, and decodes them back. The text format is like 010320-050320_100320: every run is its first date,
+ * followed by its last date if different, and runs are separated by underscores. Dates are written as ddMMYY, so
+ * decoding needs a pivot year to choose the century.
+ * <p>
+ * The binary format stores every run as two varints: the zigzag encoded distance of its first day from the last day
+ * of the previous run, or from the epoch, and its length minus one.
+ */
+public class DateRunCodec {
+
+    private static final char RUN_SEPARATOR = '_';
+
+    private static final char RANGE_SEPARATOR = '-';
+
+    private static final int DATE_LENGTH = 6;
+
+    /**
+     * The pivot of the Joda parser for two digit years: the current year minus thirty.
+     */
+    public static int getDefaultPivotYear() {
+        return new LocalDate().getYear() - 30;
+    }
+
+    public static String encode(final Iterable<LocalDate> dates) {
+        StringBuilder builder = new StringBuilder();
+        try {
+            encode(dates, builder);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @throws IllegalArgumentException if there are no dates
+     */
+    public static void encode(final Iterable<LocalDate> dates, final Appendable appendable) throws IOException {
+        encodeEpochDays(epochDays(dates.iterator()), appendable);
+    }
+
+    /**
+     * @throws IllegalArgumentException if there are no dates
+     */
+    public static void encodeEpochDays(final PrimitiveIterator.OfInt epochDays, final Appendable appendable)
+        throws IOException {
+        if (!epochDays.hasNext()) {
+            throw new IllegalArgumentException("No dates found.");
+        }
+        int start = epochDays.nextInt();
+        int previous = start;
+        appendDate(appendable, start);
+        while (epochDays.hasNext()) {
+            int day = epochDays.nextInt();
+            if (day != previous + 1) {
+                appendRunEnd(appendable, start, previous);
+                appendable.append(RUN_SEPARATOR);
+                appendDate(appendable, day);
+                start = day;
+            }
+            previous = day;
+        }
+        appendRunEnd(appendable, start, previous);
+    }
+
+    public static List<LocalDate> decode(final CharSequence code) {
+        return decode(code, getDefaultPivotYear());
+    }
+
+    /**
+     * @param pivotYear two digit years are read between fifty years before and forty-nine after
+     * @throws IllegalArgumentException if the code is malformed
+     */
+    public static List<LocalDate> decode(final CharSequence code, final int pivotYear) {
+        int[] epochDays = decodeEpochDays(code, pivotYear);
+        List<LocalDate> dates = Lists.newArrayListWithCapacity(epochDays.length);
+        for (int epochDay : epochDays) {
+            dates.add(Utils.fromEpochDay(epochDay));
+        }
+        return dates;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the code is malformed
+     */
+    public static int[] decodeEpochDays(final CharSequence code, final int pivotYear) {
+        EpochDayCollector collector = new EpochDayCollector();
+        parse(code, pivotYear, collector);
+        return collector.toArray();
+    }
+
+    /**
+     * Sets the bit of every date, counting from the origin.
+     * @throws IllegalArgumentException if the code is malformed or has dates before the origin
+     */
+    public static BitSet decodeToBitSet(final CharSequence code, final int originEpochDay, final int pivotYear) {
+        final BitSet bitSet = new BitSet();
+        parse(code, pivotYear, new RunHandler(){
+
+            @Override
+            public void run(final int start, final int end) {
+                if (start < originEpochDay) {
+                    throw new IllegalArgumentException(Utils.format("Date before origin: {}",
+                        Utils.fromEpochDay(start)));
+                }
+                bitSet.set(start - originEpochDay, end - originEpochDay + 1);
+            }
+
+        });
+        return bitSet;
+    }
+
+    public static byte[] encodeBinary(final Iterable<LocalDate> dates) {
+        return encodeBinaryEpochDays(epochDays(dates.iterator()));
+    }
+
+    public static byte[] encodeBinaryEpochDays(final PrimitiveIterator.OfInt epochDays) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        if (!epochDays.hasNext()) {
+            return output.toByteArray();
+        }
+        int start = epochDays.nextInt();
+        int previous = start;
+        int previousEnd = 0;
+        while (epochDays.hasNext()) {
+            int day = epochDays.nextInt();
+            if (day != previous + 1) {
+                writeRun(output, start - previousEnd, previous - start);
+                previousEnd = previous;
+                start = day;
+            }
+            previous = day;
+        }
+        writeRun(output, start - previousEnd, previous - start);
+        return output.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are malformed
+     */
+    public static int[] decodeBinary(final byte[] bytes) {
+        EpochDayCollector collector = new EpochDayCollector();
+        int position = 0;
+        int previousEnd = 0;
+        while (position < bytes.length) {
+            long distance = readVarint(bytes, position);
+            position = (int) (distance >>> 32);
+            long length = readVarint(bytes, position);
+            position = (int) (length >>> 32);
+            int start = previousEnd + zigzagDecode((int) distance);
+            int end = start + (int) length;
+            collector.run(start, end);
+            previousEnd = end;
+        }
+        return collector.toArray();
+    }
+
+    private static PrimitiveIterator.OfInt epochDays(final Iterator<LocalDate> iterator) {
+        return new PrimitiveIterator.OfInt(){
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                return Utils.toEpochDay(iterator.next());
+            }
+
+        };
+    }
+
+    /**
+     * Writes the last date of the run, unless it prints like the first one.
+     */
+    private static void appendRunEnd(final Appendable appendable, final int start, final int end) throws IOException {
+        if (start != end && toPrintedDate(start) != toPrintedDate(end)) {
+            appendable.append(RANGE_SEPARATOR);
+            appendDate(appendable, end);
+        }
+    }
+
+    /**
+     * Day, month and two digit year of era, as printed by ddMMYY.
+     */
+    private static int toPrintedDate(final int epochDay) {
+        int packedDate = Utils.toPackedDate(epochDay);
+        int year = packedDate >> 9;
+        int yearOfEra = year > 0 ? year : 1 - year;
+        return (packedDate & 0x1FF) | yearOfEra % 100 << 9;
+    }
+
+    private static void appendDate(final Appendable appendable, final int epochDay) throws IOException {
+        int printedDate = toPrintedDate(epochDay);
+        appendTwoDigits(appendable, printedDate & 0x1F);
+        appendTwoDigits(appendable, printedDate >> 5 & 0xF);
+        appendTwoDigits(appendable, printedDate >> 9);
+    }
+
+    private static void appendTwoDigits(final Appendable appendable, final int value) throws IOException {
+        appendable.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    private static void parse(final CharSequence code, final int pivotYear, final RunHandler handler) {
+        int position = 0;
+        while (true) {
+            int start = parseDate(code, position, pivotYear);
+            int end = start;
+            position += DATE_LENGTH;
+            if (position < code.length() && code.charAt(position) == RANGE_SEPARATOR) {
+                end = parseDate(code, position + 1, pivotYear);
+                position += DATE_LENGTH + 1;
+                if (end < start) {
+                    throw new IllegalArgumentException(Utils.format("Run ends before its start at {}: {}",
+                        position, code));
+                }
+            }
+            handler.run(start, end);
+            if (position == code.length()) {
+                return;
+            }
+            if (code.charAt(position) != RUN_SEPARATOR) {
+                throw new IllegalArgumentException(Utils.format("Separator expected at {}: {}", position, code));
+            }
+            position++;
+        }
+    }
+
+    private static int parseDate(final CharSequence code, final int position, final int pivotYear) {
+        if (position + DATE_LENGTH > code.length()) {
+            throw new IllegalArgumentException(Utils.format("Date expected at {}: {}", position, code));
+        }
+        int day = parseTwoDigits(code, position);
+        int month = parseTwoDigits(code, position + 2);
+        int twoDigitYear = parseTwoDigits(code, position + 4);
+        int lowestYear = pivotYear - 50;
+        int year = lowestYear + ((twoDigitYear - lowestYear) % 100 + 100) % 100;
+        try {
+            return Utils.toEpochDay(new LocalDate(year, month, day));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(Utils.format("Invalid date at {}: {}", position, code), e);
+        }
+    }
+
+    private static int parseTwoDigits(final CharSequence code, final int position) {
+        char tens = code.charAt(position);
+        char units = code.charAt(position + 1);
+        if (tens < '0' || tens > '9' || units < '0' || units > '9') {
+            throw new IllegalArgumentException(Utils.format("Digits expected at {}: {}", position, code));
+        }
+        return (tens - '0') * 10 + units - '0';
+    }
+
+    private static void writeRun(final ByteArrayOutputStream output, final int distance, final int length) {
+        writeVarint(output, distance << 1 ^ distance >> 31);
+        writeVarint(output, length);
+    }
+
+    private static void writeVarint(final ByteArrayOutputStream output, final int value) {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            output.write(remaining & 0x7F | 0x80);
+            remaining >>>= 7;
+        }
+        output.write(remaining);
+    }
+
+    /**
+     * @return the position after the varint in the upper half and the value in the lower half
+     */
+    private static long readVarint(final byte[] bytes, final int position) {
+        int value = 0;
+        int current = position;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (current >= bytes.length) {
+                throw new IllegalArgumentException(Utils.format("Truncated varint at {}", position));
+            }
+            byte b = bytes[current++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return (long) current << 32 | value & 0xFFFFFFFFL;
+            }
+        }
+        throw new IllegalArgumentException(Utils.format("Malformed varint at {}", position));
+    }
+
+    private static int zigzagDecode(final int value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private interface RunHandler {
+
+        void run(int start, int end);
+
+    }
+
+    private static class EpochDayCollector implements RunHandler {
+
+        private int[] epochDays = new int[16];
+
+        private int size;
+
+        @Override
+        public void run(final int start, final int end) {
+            int length = end - start + 1;
+            if (size + length > epochDays.length) {
+                epochDays = Arrays.copyOf(epochDays, Math.max(size + length, epochDays.length * 2));
+            }
+            for (int day = start; day <= end; day++) {
+                epochDays[size++] = day;
+            }
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(epochDays, size);
+        }
+
+    }
+
+}
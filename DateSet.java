@@ -0,0 +1,499 @@
+package com.dilax.mobile.model.network.util;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import org.joda.time.LocalDate;
+
+import com.dilax.mobile.enumeration.WeekDay;
+
+/**
+ * Set of days, like the operating days of a service calendar, stored as one bit per epoch day. The words of bits
+ * start from a multiple of 64 days, so two sets are combined word by word whatever their range: union, intersection
+ * and difference cost one operation every 64 days instead of one lookup per date. Iteration is in chronological
+ * order and the set grows in both directions as days are added.
+ */
+public class DateSet extends AbstractSet<LocalDate> {
+
+    private static final long[] NO_WORDS = new long[0];
+
+    /** Epoch day of the first bit divided by 64. */
+    private int originWord;
+
+    private long[] words = NO_WORDS;
+
+    protected DateSet() {
+    }
+
+    public static DateSet create() {
+        return new DateSet();
+    }
+
+    public static DateSet create(final Iterable<LocalDate> dates) {
+        DateSet dateSet = new DateSet();
+        for (LocalDate date : dates) {
+            dateSet.add(date);
+        }
+        return dateSet;
+    }
+
+    /**
+     * Every day between the two dates, both included.
+     */
+    public static DateSet create(final LocalDate from, final LocalDate to) {
+        DateSet dateSet = new DateSet();
+        dateSet.addEpochDays(Utils.toEpochDay(from), Utils.toEpochDay(to));
+        return dateSet;
+    }
+
+    /**
+     * Every day between the two dates, both included, falling on one of the week days.
+     */
+    public static DateSet create(final LocalDate from, final LocalDate to, final Collection<WeekDay> weekDays) {
+        DateSet dateSet = create(from, to);
+        dateSet.retainWeekDays(weekDays);
+        return dateSet;
+    }
+
+    /**
+     * @see DateRunCodec#decodeEpochDays(CharSequence, int)
+     */
+    public static DateSet decode(final CharSequence code, final int pivotYear) {
+        DateSet dateSet = new DateSet();
+        for (int epochDay : DateRunCodec.decodeEpochDays(code, pivotYear)) {
+            dateSet.addEpochDay(epochDay);
+        }
+        return dateSet;
+    }
+
+    public static DateSet union(final DateSet first, final DateSet second) {
+        DateSet result = first.copy();
+        result.addAll(second);
+        return result;
+    }
+
+    public static DateSet intersection(final DateSet first, final DateSet second) {
+        DateSet result = first.copy();
+        result.retainAll(second);
+        return result;
+    }
+
+    public static DateSet difference(final DateSet first, final DateSet second) {
+        DateSet result = first.copy();
+        result.removeAll(second);
+        return result;
+    }
+
+    public DateSet copy() {
+        DateSet copy = new DateSet();
+        copy.originWord = originWord;
+        copy.words = words.clone();
+        return copy;
+    }
+
+    @Override
+    public boolean add(final LocalDate date) {
+        return addEpochDay(Utils.toEpochDay(date));
+    }
+
+    public boolean addEpochDay(final int epochDay) {
+        int index = reserve(epochDay >> 6, epochDay >> 6);
+        long word = words[index];
+        words[index] = word | 1L << epochDay;
+        return word != words[index];
+    }
+
+    /**
+     * Adds every day between the two, both included.
+     */
+    public void addEpochDays(final int fromEpochDay, final int toEpochDay) {
+        if (toEpochDay < fromEpochDay) {
+            throw new IllegalArgumentException(Utils.format("Range ends before its start: {}, {}", fromEpochDay,
+                toEpochDay));
+        }
+        int from = reserve(fromEpochDay >> 6, toEpochDay >> 6);
+        int to = (toEpochDay >> 6) - originWord;
+        long firstMask = -1L << fromEpochDay;
+        long lastMask = -1L >>> 63 - (toEpochDay & 63);
+        if (from == to) {
+            words[from] |= firstMask & lastMask;
+            return;
+        }
+        words[from] |= firstMask;
+        Arrays.fill(words, from + 1, to, -1L);
+        words[to] |= lastMask;
+    }
+
+    @Override
+    public boolean remove(final Object object) {
+        return object instanceof LocalDate && removeEpochDay(Utils.toEpochDay((LocalDate) object));
+    }
+
+    public boolean removeEpochDay(final int epochDay) {
+        int index = (epochDay >> 6) - originWord;
+        if (index < 0 || index >= words.length) {
+            return false;
+        }
+        long word = words[index];
+        words[index] = word & ~(1L << epochDay);
+        return word != words[index];
+    }
+
+    @Override
+    public boolean contains(final Object object) {
+        return object instanceof LocalDate && containsEpochDay(Utils.toEpochDay((LocalDate) object));
+    }
+
+    public boolean containsEpochDay(final int epochDay) {
+        return (word(epochDay >> 6) & 1L << epochDay) != 0;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends LocalDate> collection) {
+        if (!(collection instanceof DateSet)) {
+            return super.addAll(collection);
+        }
+        DateSet other = (DateSet) collection;
+        int first = other.firstWord();
+        if (first == Integer.MAX_VALUE) {
+            return false;
+        }
+        int last = other.lastWord();
+        int offset = reserve(first, last) - first;
+        boolean isChanged = false;
+        for (int word = first; word <= last; word++) {
+            long previous = words[offset + word];
+            words[offset + word] = previous | other.word(word);
+            isChanged |= previous != words[offset + word];
+        }
+        return isChanged;
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> collection) {
+        if (!(collection instanceof DateSet)) {
+            return super.retainAll(collection);
+        }
+        DateSet other = (DateSet) collection;
+        boolean isChanged = false;
+        for (int i = 0; i < words.length; i++) {
+            long previous = words[i];
+            words[i] = previous & other.word(originWord + i);
+            isChanged |= previous != words[i];
+        }
+        return isChanged;
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> collection) {
+        if (!(collection instanceof DateSet)) {
+            return super.removeAll(collection);
+        }
+        DateSet other = (DateSet) collection;
+        boolean isChanged = false;
+        for (int i = 0; i < words.length; i++) {
+            long previous = words[i];
+            words[i] = previous & ~other.word(originWord + i);
+            isChanged |= previous != words[i];
+        }
+        return isChanged;
+    }
+
+    /**
+     * Whether the two sets have at least one day in common, without building their intersection.
+     */
+    public boolean intersects(final DateSet other) {
+        int from = Math.max(originWord, other.originWord);
+        int to = Math.min(originWord + words.length, other.originWord + other.words.length);
+        for (int word = from; word < to; word++) {
+            if ((words[word - originWord] & other.words[word - other.originWord]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Keeps only the days falling on one of the week days.
+     */
+    public void retainWeekDays(final Collection<WeekDay> weekDays) {
+        long[] masks = getWeekDayMasks(weekDays);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= masks[phase(originWord + i)];
+        }
+    }
+
+    /**
+     * The days between the two, both included.
+     */
+    public DateSet subSet(final int fromEpochDay, final int toEpochDay) {
+        DateSet result = new DateSet();
+        if (toEpochDay < fromEpochDay) {
+            return result;
+        }
+        result.addEpochDays(fromEpochDay, toEpochDay);
+        result.retainAll(this);
+        return result;
+    }
+
+    public DateSet subSet(final LocalDate from, final LocalDate to) {
+        return subSet(Utils.toEpochDay(from), Utils.toEpochDay(to));
+    }
+
+    /**
+     * The number of days between the two, both included.
+     */
+    public int count(final int fromEpochDay, final int toEpochDay) {
+        int count = 0;
+        if (toEpochDay < fromEpochDay) {
+            return count;
+        }
+        int from = fromEpochDay >> 6;
+        int to = toEpochDay >> 6;
+        for (int word = Math.max(from, originWord); word <= Math.min(to, originWord + words.length - 1); word++) {
+            long bits = words[word - originWord];
+            if (word == from) {
+                bits &= -1L << fromEpochDay;
+            }
+            if (word == to) {
+                bits &= -1L >>> 63 - (toEpochDay & 63);
+            }
+            count += Long.bitCount(bits);
+        }
+        return count;
+    }
+
+    public int count(final LocalDate from, final LocalDate to) {
+        return count(Utils.toEpochDay(from), Utils.toEpochDay(to));
+    }
+
+    /**
+     * @throws NoSuchElementException if the set is empty
+     */
+    public int firstEpochDay() {
+        for (int i = 0; i < words.length; i++) {
+            if (words[i] != 0) {
+                return (originWord + i << 6) + Long.numberOfTrailingZeros(words[i]);
+            }
+        }
+        throw new NoSuchElementException();
+    }
+
+    /**
+     * @throws NoSuchElementException if the set is empty
+     */
+    public int lastEpochDay() {
+        for (int i = words.length - 1; i >= 0; i--) {
+            if (words[i] != 0) {
+                return (originWord + i << 6) + 63 - Long.numberOfLeadingZeros(words[i]);
+            }
+        }
+        throw new NoSuchElementException();
+    }
+
+    public LocalDate first() {
+        return Utils.fromEpochDay(firstEpochDay());
+    }
+
+    public LocalDate last() {
+        return Utils.fromEpochDay(lastEpochDay());
+    }
+
+    @Override
+    public Iterator<LocalDate> iterator() {
+        final EpochDayIterator iterator = new EpochDayIterator();
+        return new Iterator<LocalDate>(){
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public LocalDate next() {
+                return Utils.fromEpochDay(iterator.nextInt());
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+            }
+
+        };
+    }
+
+    /**
+     * The days in chronological order, without creating dates.
+     */
+    public PrimitiveIterator.OfInt epochDayIterator() {
+        return new EpochDayIterator();
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (!(object instanceof DateSet)) {
+            return super.equals(object);
+        }
+        DateSet other = (DateSet) object;
+        int from = Math.min(originWord, other.originWord);
+        int to = Math.max(originWord + words.length, other.originWord + other.words.length);
+        for (int word = from; word < to; word++) {
+            if (word(word) != other.word(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    private long word(final int word) {
+        int index = word - originWord;
+        return index >= 0 && index < words.length ? words[index] : 0;
+    }
+
+    /**
+     * @return Integer.MAX_VALUE if the set is empty
+     */
+    private int firstWord() {
+        for (int i = 0; i < words.length; i++) {
+            if (words[i] != 0) {
+                return originWord + i;
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private int lastWord() {
+        for (int i = words.length - 1; i >= 0; i--) {
+            if (words[i] != 0) {
+                return originWord + i;
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Makes room for the words between the two, growing the array with some slack on the side it grows.
+     * @return the index of the first word
+     */
+    private int reserve(final int fromWord, final int toWord) {
+        if (words.length == 0) {
+            originWord = fromWord;
+            words = new long[toWord - fromWord + 1];
+            return 0;
+        }
+        int lastWord = originWord + words.length - 1;
+        if (fromWord < originWord || toWord > lastWord) {
+            int newOrigin = fromWord < originWord ? Math.min(fromWord, originWord - words.length) : originWord;
+            int newLast = toWord > lastWord ? Math.max(toWord, lastWord + words.length) : lastWord;
+            long[] newWords = new long[newLast - newOrigin + 1];
+            System.arraycopy(words, 0, newWords, originWord - newOrigin, words.length);
+            originWord = newOrigin;
+            words = newWords;
+        }
+        return fromWord - originWord;
+    }
+
+    /**
+     * For the seven possible phases of a word, the bits of the days falling on one of the week days.
+     */
+    private static long[] getWeekDayMasks(final Collection<WeekDay> weekDays) {
+        boolean[] isIncluded = new boolean[7];
+        for (int jodaIndex = 1; jodaIndex <= 7; jodaIndex++) {
+            isIncluded[jodaIndex - 1] = weekDays.contains(Utils.getWeekDayFromJodaIndex(jodaIndex));
+        }
+        long[] masks = new long[7];
+        for (int phase = 0; phase < 7; phase++) {
+            for (int bit = 0; bit < 64; bit++) {
+                if (isIncluded[(phase + bit) % 7]) {
+                    masks[phase] |= 1L << bit;
+                }
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Joda index minus one of the week day of the first day of the word. The epoch was a Thursday.
+     */
+    private static int phase(final int word) {
+        return (int) Math.floorMod(((long) word << 6) + 3, 7L);
+    }
+
+    private class EpochDayIterator implements PrimitiveIterator.OfInt {
+
+        private int index = -1;
+
+        private long word;
+
+        private int last;
+
+        private boolean canRemove;
+
+        @Override
+        public boolean hasNext() {
+            while (word == 0) {
+                if (index + 1 >= words.length) {
+                    return false;
+                }
+                word = words[++index];
+            }
+            return true;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int bit = Long.numberOfTrailingZeros(word);
+            word &= word - 1;
+            last = (originWord + index << 6) + bit;
+            canRemove = true;
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+            removeEpochDay(last);
+            canRemove = false;
+        }
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.dilax.mobile.model.network.util;
+
+import org.joda.time.LocalDate;
+
+/**
+ * List of date periods stored as epoch days in two int arrays. Pairs with null elements cannot be stored.
+ * @see AbstractPairList
+ * @see Utils#toEpochDay(LocalDate)
+ */
+public class EpochDayPairList extends AbstractPairList<TwinPair<LocalDate>> {
+
+    protected EpochDayPairList(final int capacity) {
+        super(int.class, int.class, capacity);
+    }
+
+    public static EpochDayPairList create() {
+        return new EpochDayPairList(0);
+    }
+
+    public static EpochDayPairList create(final int capacity) {
+        return new EpochDayPairList(capacity);
+    }
+
+    public void add(final LocalDate first, final LocalDate second) {
+        addEpochDays(Utils.toEpochDay(first), Utils.toEpochDay(second));
+    }
+
+    public void addEpochDays(final int first, final int second) {
+        int index = reserve(size);
+        ((int[]) firsts)[index] = first;
+        ((int[]) seconds)[index] = second;
+    }
+
+    public int getFirstEpochDay(final int index) {
+        return ((int[]) firsts)[checkIndex(index)];
+    }
+
+    public int getSecondEpochDay(final int index) {
+        return ((int[]) seconds)[checkIndex(index)];
+    }
+
+    public LocalDate getFirst(final int index) {
+        return Utils.fromEpochDay(getFirstEpochDay(index));
+    }
+
+    public LocalDate getSecond(final int index) {
+        return Utils.fromEpochDay(getSecondEpochDay(index));
+    }
+
+    @Override
+    public TwinPair<LocalDate> get(final int index) {
+        return TwinPair.from(getFirst(index), getSecond(index));
+    }
+
+    @Override
+    public TwinPair<LocalDate> set(final int index, final TwinPair<LocalDate> pair) {
+        TwinPair<LocalDate> previous = get(index);
+        ((int[]) firsts)[index] = Utils.toEpochDay(pair.getFirst());
+        ((int[]) seconds)[index] = Utils.toEpochDay(pair.getSecond());
+        return previous;
+    }
+
+    @Override
+    public void add(final int index, final TwinPair<LocalDate> pair) {
+        int first = Utils.toEpochDay(pair.getFirst());
+        int second = Utils.toEpochDay(pair.getSecond());
+        int reserved = reserve(index);
+        ((int[]) firsts)[reserved] = first;
+        ((int[]) seconds)[reserved] = second;
+    }
+
+}
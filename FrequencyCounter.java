@@ -0,0 +1,132 @@
+package com.dilax.mobile.model.network.util;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.slf4j.helpers.MessageFormatter;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.TreeMultimap;
+
+/**
+ * Counts the occurrences of elements in a single hash based pass. The queries return the same shapes as
+ * {@link CollectionUtils#getFrequencyMultimap(Collection, Ordering)} and
+ * {@link CollectionUtils#getMostFrequentElements(Collection)}, so elements must be comparable.
+ */
+public class FrequencyCounter<C> {
+
+    private final Multiset<C> counts;
+
+    private FrequencyCounter(final Multiset<C> counts) {
+        this.counts = counts;
+    }
+
+    public static <C> FrequencyCounter<C> create() {
+        return new FrequencyCounter<C>(HashMultiset.<C> create());
+    }
+
+    public static <C> FrequencyCounter<C> from(final Iterable<C> iterable) {
+        FrequencyCounter<C> counter = create();
+        counter.addAll(iterable);
+        return counter;
+    }
+
+    public void add(final C element) {
+        counts.add(element);
+    }
+
+    public void addAll(final Iterable<C> iterable) {
+        for (C element : iterable) {
+            counts.add(element);
+        }
+    }
+
+    public int getFrequency(final C element) {
+        return counts.count(element);
+    }
+
+    public int getDistinctCount() {
+        return counts.elementSet().size();
+    }
+
+    public boolean isEmpty() {
+        return counts.isEmpty();
+    }
+
+    /**
+     * Every distinct element keyed by its frequency. Keys follow the given ordering, elements with the same frequency
+     * follow their natural ordering.
+     */
+    public Multimap<Integer, C> getFrequencyMultimap(final Ordering<Integer> ordering) {
+        Multimap<Integer, C> result = TreeMultimap.create(ordering, CollectionUtils.<C> naturalOrdering());
+        for (Multiset.Entry<C> entry : counts.entrySet()) {
+            result.put(entry.getCount(), entry.getElement());
+        }
+        return result;
+    }
+
+    /**
+     * The elements sharing the highest frequency, in their natural ordering. Empty if nothing has been counted.
+     */
+    public SortedSet<C> getMostFrequentElements() {
+        SortedSet<C> result = new TreeSet<C>(CollectionUtils.<C> naturalOrdering());
+        int maxCount = 0;
+        for (Multiset.Entry<C> entry : counts.entrySet()) {
+            int count = entry.getCount();
+            if (count > maxCount) {
+                maxCount = count;
+                result.clear();
+            }
+            if (count == maxCount) {
+                result.add(entry.getElement());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The k most frequent elements keyed by their frequency, highest frequency first. Ties are resolved in favour
+     * of the smaller element, so the result is a prefix of getFrequencyMultimap() with reverse ordering. Uses a heap
+     * bounded to k entries instead of sorting every distinct element.
+     */
+    public Multimap<Integer, C> getTopElements(final int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException(MessageFormatter.format("Size must be positive: {}", k).getMessage());
+        }
+        final Comparator<C> elementOrdering = CollectionUtils.naturalOrdering();
+        // The head is the weakest entry: lowest count, and the biggest element among equal counts.
+        PriorityQueue<Multiset.Entry<C>> heap = new PriorityQueue<Multiset.Entry<C>>(Math.min(k,
+            Math.max(1, getDistinctCount())), new Comparator<Multiset.Entry<C>>(){
+
+            @Override
+            public int compare(final Multiset.Entry<C> first, final Multiset.Entry<C> second) {
+                if (first.getCount() != second.getCount()) {
+                    return first.getCount() < second.getCount() ? -1 : 1;
+                }
+                return elementOrdering.compare(second.getElement(), first.getElement());
+            }
+
+        });
+        for (Multiset.Entry<C> entry : counts.entrySet()) {
+            if (heap.size() < k) {
+                heap.add(entry);
+            } else if (heap.comparator().compare(entry, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        Ordering<Integer> reverseIntegerOrdering = Ordering.natural().reverse();
+        Multimap<Integer, C> result = TreeMultimap.create(reverseIntegerOrdering, elementOrdering);
+        for (Multiset.Entry<C> entry : heap) {
+            result.put(entry.getCount(), entry.getElement());
+        }
+        return result;
+    }
+
+}
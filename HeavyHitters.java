@@ -0,0 +1,373 @@
+package com.dilax.mobile.model.network.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.TreeMultimap;
+import com.google.common.primitives.Ints;
+
+/**
+ * Approximate counter of the most frequent elements of a stream, in memory bounded by its capacity, with the
+ * Space-Saving algorithm: it monitors at most capacity elements, and an element arriving when all the counters are
+ * taken replaces the least counted one and inherits its count. The estimated frequency of a monitored element is
+ * never below the real one and exceeds it by at most the number of counted elements divided by the capacity, so every
+ * element more frequent than that is monitored. Summaries of parts of a stream, counted by different threads or nodes,
+ * can be merged with the same bound if they have the same capacity, and with the bound of the smaller one otherwise.
+ * The queries return the same shapes as {@link FrequencyCounter}, with estimated frequencies, so elements must be
+ * comparable.
+ */
+public class HeavyHitters<C> {
+
+    private final int capacity;
+
+    private final Map<C, Counter<C>> counters;
+
+    /** Min heap of the counters by count. */
+    private Counter<C>[] heap;
+
+    private int size;
+
+    private long totalCount;
+
+    /** How often an element that is not monitored may have occurred in the merged summaries. */
+    private long errorFloor;
+
+    @SuppressWarnings("unchecked")
+    private HeavyHitters(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(Utils.format("Capacity must be positive: {}", capacity));
+        }
+        this.capacity = capacity;
+        this.counters = Maps.newHashMapWithExpectedSize(capacity);
+        this.heap = (Counter<C>[]) new Counter<?>[Math.min(capacity, 1024)];
+    }
+
+    /**
+     * @param capacity the number of monitored elements
+     */
+    public static <C> HeavyHitters<C> create(final int capacity) {
+        return new HeavyHitters<C>(capacity);
+    }
+
+    /**
+     * A summary whose estimates exceed the real frequencies by at most the given fraction of the counted elements.
+     * @param maxError between 0 and 1, exclusive
+     */
+    public static <C> HeavyHitters<C> withMaxError(final double maxError) {
+        if (!(maxError > 0 && maxError < 1)) {
+            throw new IllegalArgumentException(Utils.format("Error must be between 0 and 1: {}", maxError));
+        }
+        return new HeavyHitters<C>((int) Math.ceil(1 / maxError));
+    }
+
+    public static <C> HeavyHitters<C> from(final Iterator<? extends C> iterator, final int capacity) {
+        HeavyHitters<C> summary = create(capacity);
+        summary.addAll(iterator);
+        return summary;
+    }
+
+    /**
+     * Counts the stream, which may be parallel: every thread fills its own summary and the summaries are merged.
+     */
+    public static <C> HeavyHitters<C> from(final Stream<? extends C> stream, final int capacity) {
+        return stream.collect(new Supplier<HeavyHitters<C>>(){
+
+            @Override
+            public HeavyHitters<C> get() {
+                return create(capacity);
+            }
+
+        }, new BiConsumer<HeavyHitters<C>, C>(){
+
+            @Override
+            public void accept(final HeavyHitters<C> summary, final C element) {
+                summary.add(element);
+            }
+
+        }, new BiConsumer<HeavyHitters<C>, HeavyHitters<C>>(){
+
+            @Override
+            public void accept(final HeavyHitters<C> summary, final HeavyHitters<C> other) {
+                summary.merge(other);
+            }
+
+        });
+    }
+
+    public void add(final C element) {
+        totalCount++;
+        Counter<C> counter = counters.get(element);
+        if (counter != null) {
+            counter.count++;
+            siftDown(counter.index);
+        } else if (size < capacity) {
+            // Merged summaries may have counted and dropped the element.
+            counter = new Counter<C>(element, errorFloor + 1, errorFloor);
+            counters.put(element, counter);
+            push(counter);
+        } else {
+            // The least counted element is replaced, and its count becomes the possible error of the new one.
+            counter = heap[0];
+            counters.remove(counter.element);
+            counter.element = element;
+            counter.error = counter.count;
+            counter.count++;
+            counters.put(element, counter);
+            siftDown(0);
+        }
+    }
+
+    public void addAll(final Iterator<? extends C> iterator) {
+        while (iterator.hasNext()) {
+            add(iterator.next());
+        }
+    }
+
+    public void addAll(final Iterable<? extends C> iterable) {
+        addAll(iterable.iterator());
+    }
+
+    public void addAll(final Stream<? extends C> stream) {
+        stream.forEachOrdered(new Consumer<C>(){
+
+            @Override
+            public void accept(final C element) {
+                add(element);
+            }
+
+        });
+    }
+
+    /**
+     * Adds the counts of the other summary, which is not changed. Elements monitored by only one summary get the
+     * highest possible error of the other one, as it might have counted them before dropping them. The capacity of
+     * this summary is kept, and elements monitored by neither summary keep the sum of both errors as error.
+     * @return this summary
+     */
+    public HeavyHitters<C> merge(final HeavyHitters<C> other) {
+        long minCount = getMinCount();
+        long otherMinCount = other.getMinCount();
+        Map<C, Counter<C>> merged = Maps.newHashMapWithExpectedSize(size + other.size);
+        for (Counter<C> counter : counters.values()) {
+            Counter<C> otherCounter = other.counters.get(counter.element);
+            if (otherCounter == null) {
+                merged.put(counter.element, new Counter<C>(counter.element, counter.count + otherMinCount,
+                    counter.error + otherMinCount));
+            } else {
+                merged.put(counter.element, new Counter<C>(counter.element, counter.count + otherCounter.count,
+                    counter.error + otherCounter.error));
+            }
+        }
+        for (Counter<C> otherCounter : other.counters.values()) {
+            if (!counters.containsKey(otherCounter.element)) {
+                merged.put(otherCounter.element, new Counter<C>(otherCounter.element, otherCounter.count + minCount,
+                    otherCounter.error + minCount));
+            }
+        }
+        List<Counter<C>> kept = Lists.newArrayList(merged.values());
+        if (kept.size() > capacity) {
+            kept = Ordering.natural().onResultOf(new Function<Counter<C>, Long>(){
+
+                @Override
+                public Long apply(final Counter<C> counter) {
+                    return counter.count;
+                }
+
+            }).greatestOf(kept, capacity);
+        }
+        counters.clear();
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+        for (Counter<C> counter : kept) {
+            counters.put(counter.element, counter);
+            push(counter);
+        }
+        totalCount += other.totalCount;
+        errorFloor = minCount + otherMinCount;
+        return this;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * The number of counted elements.
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * The number of monitored elements.
+     */
+    public int getMonitoredCount() {
+        return size;
+    }
+
+    /**
+     * The highest possible excess of the estimates over the real frequencies: the smallest count once every counter
+     * is taken, and at least the errors carried over by merges. Elements more frequent than this are all monitored.
+     */
+    public long getMaxError() {
+        return getMinCount();
+    }
+
+    /**
+     * An upper bound of the frequency of the element, or getMaxError() if it is not monitored.
+     */
+    public long getEstimatedFrequency(final C element) {
+        Counter<C> counter = counters.get(element);
+        return counter == null ? getMinCount() : counter.count;
+    }
+
+    /**
+     * A lower bound of the frequency of the element.
+     */
+    public long getGuaranteedFrequency(final C element) {
+        Counter<C> counter = counters.get(element);
+        return counter == null ? 0 : counter.count - counter.error;
+    }
+
+    /**
+     * Like FrequencyCounter.getFrequencyMultimap(), for the monitored elements and their estimated frequencies.
+     */
+    public Multimap<Integer, C> getFrequencyMultimap(final Ordering<Integer> ordering) {
+        Multimap<Integer, C> result = TreeMultimap.create(ordering, CollectionUtils.<C> naturalOrdering());
+        for (int i = 0; i < size; i++) {
+            result.put(Ints.saturatedCast(heap[i].count), heap[i].element);
+        }
+        return result;
+    }
+
+    /**
+     * Like FrequencyCounter.getMostFrequentElements(), by estimated frequency.
+     */
+    public SortedSet<C> getMostFrequentElements() {
+        SortedSet<C> result = new TreeSet<C>(CollectionUtils.<C> naturalOrdering());
+        long maxCount = 0;
+        for (int i = 0; i < size; i++) {
+            long count = heap[i].count;
+            if (count > maxCount) {
+                maxCount = count;
+                result.clear();
+            }
+            if (count == maxCount) {
+                result.add(heap[i].element);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Like FrequencyCounter.getTopElements(), by estimated frequency.
+     */
+    public Multimap<Integer, C> getTopElements(final int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException(Utils.format("Size must be positive: {}", k));
+        }
+        Multimap<Integer, C> all = getFrequencyMultimap(Ordering.<Integer> natural().reverse());
+        Multimap<Integer, C> result = TreeMultimap.create(Ordering.<Integer> natural().reverse(),
+            CollectionUtils.<C> naturalOrdering());
+        Iterator<Map.Entry<Integer, C>> iterator = all.entries().iterator();
+        for (int i = 0; i < k && iterator.hasNext(); i++) {
+            Map.Entry<Integer, C> entry = iterator.next();
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * The collection of the monitored elements, in no particular order.
+     */
+    public Collection<C> getMonitoredElements() {
+        return counters.keySet();
+    }
+
+    private long getMinCount() {
+        return size < capacity || size == 0 ? errorFloor : Math.max(errorFloor, heap[0].count);
+    }
+
+    private void push(final Counter<C> counter) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, Math.min(capacity, heap.length * 2));
+        }
+        heap[size] = counter;
+        counter.index = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    private void siftUp(final int index) {
+        Counter<C> counter = heap[index];
+        int current = index;
+        while (current > 0) {
+            int parent = (current - 1) >>> 1;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            place(heap[parent], current);
+            current = parent;
+        }
+        place(counter, current);
+    }
+
+    private void siftDown(final int index) {
+        Counter<C> counter = heap[index];
+        int current = index;
+        while (true) {
+            int child = 2 * current + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (heap[child].count >= counter.count) {
+                break;
+            }
+            place(heap[child], current);
+            current = child;
+        }
+        place(counter, current);
+    }
+
+    private void place(final Counter<C> counter, final int index) {
+        heap[index] = counter;
+        counter.index = index;
+    }
+
+    private static class Counter<C> {
+
+        private C element;
+
+        private long count;
+
+        /** How much of the count may come from other elements. */
+        private long error;
+
+        private int index;
+
+        private Counter(final C element, final long count, final long error) {
+            this.element = element;
+            this.count = count;
+            this.error = error;
+        }
+
+    }
+
+}
@@ -0,0 +1,260 @@
+package com.dilax.mobile.model.network.util;
+
+/**
+ * Hash appended by Utils.hashAndCrop() to the cropped identifier. JAVA keeps the historical format, the decimal
+ * String.hashCode(). The other ones are 64 and 128 bit hashes printed in lowercase hexadecimal, which make collisions
+ * unlikely among billions of identifiers instead of millions. They read the UTF-16 code units of the characters as
+ * little-endian bytes with seed zero, so the results can be checked with any implementation of the algorithm:
+ * XXHASH_64 prints like the xxh64 hexdigest and MURMUR3_128 like Guava's murmur3_128().hashUnencodedChars().
+ * Hashing reads the characters in place and appends the digits without allocating.
+ */
+public enum IdentifierHash {
+
+    JAVA {
+
+        @Override
+        public long hash(final CharSequence sequence) {
+            if (sequence instanceof String) {
+                return sequence.hashCode();
+            }
+            int hash = 0;
+            for (int i = 0; i < sequence.length(); i++) {
+                hash = 31 * hash + sequence.charAt(i);
+            }
+            return hash;
+        }
+
+        @Override
+        public void appendHash(final CharSequence sequence, final StringBuilder builder) {
+            builder.append((int) hash(sequence));
+        }
+
+        @Override
+        int getCropLength(final int maxLength) {
+            return maxLength - 10;
+        }
+    },
+    XXHASH_64 {
+
+        @Override
+        public long hash(final CharSequence sequence) {
+            return xxHash64(sequence);
+        }
+
+        @Override
+        public void appendHash(final CharSequence sequence, final StringBuilder builder) {
+            appendHex(builder, xxHash64(sequence));
+        }
+
+        @Override
+        int getCropLength(final int maxLength) {
+            return maxLength - SEPARATOR_LENGTH - 16;
+        }
+    },
+    MURMUR3_128 {
+
+        /**
+         * The first 64 bits, like Guava's HashCode.asLong().
+         */
+        @Override
+        public long hash(final CharSequence sequence) {
+            long[] hash = HASH_BUFFER.get();
+            murmur3Hash128(sequence, hash);
+            return hash[0];
+        }
+
+        @Override
+        public void appendHash(final CharSequence sequence, final StringBuilder builder) {
+            long[] hash = HASH_BUFFER.get();
+            murmur3Hash128(sequence, hash);
+            appendLittleEndianHex(builder, hash[0]);
+            appendLittleEndianHex(builder, hash[1]);
+        }
+
+        @Override
+        int getCropLength(final int maxLength) {
+            return maxLength - SEPARATOR_LENGTH - 32;
+        }
+    };
+
+    /** Length of the separator between the cropped identifier and the hash. */
+    static final int SEPARATOR_LENGTH = 2;
+
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<long[]> HASH_BUFFER = new ThreadLocal<long[]>(){
+
+        @Override
+        protected long[] initialValue() {
+            return new long[2];
+        }
+
+    };
+
+    private static final long XX_PRIME_1 = 0x9E3779B185EBCA87L;
+
+    private static final long XX_PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private static final long XX_PRIME_3 = 0x165667B19E3779F9L;
+
+    private static final long XX_PRIME_4 = 0x85EBCA77C2B2AE63L;
+
+    private static final long XX_PRIME_5 = 0x27D4EB2F165667C5L;
+
+    private static final long MURMUR_C1 = 0x87C37B91114253D5L;
+
+    private static final long MURMUR_C2 = 0x4CF5AD432745937FL;
+
+    /**
+     * The hash, or its first 64 bits.
+     */
+    public abstract long hash(CharSequence sequence);
+
+    public abstract void appendHash(CharSequence sequence, StringBuilder builder);
+
+    /**
+     * The length of the identifier kept before the hash, for a result of at most the given length. JAVA keeps the
+     * historical ten characters for the separator and the hash, which can be one longer.
+     */
+    abstract int getCropLength(int maxLength);
+
+    static long xxHash64(final CharSequence sequence) {
+        int length = sequence.length();
+        int index = 0;
+        long hash;
+        if (length >= 16) {
+            long v1 = XX_PRIME_1 + XX_PRIME_2;
+            long v2 = XX_PRIME_2;
+            long v3 = 0;
+            long v4 = -XX_PRIME_1;
+            for (; index + 16 <= length; index += 16) {
+                v1 = xxRound(v1, lane(sequence, index));
+                v2 = xxRound(v2, lane(sequence, index + 4));
+                v3 = xxRound(v3, lane(sequence, index + 8));
+                v4 = xxRound(v4, lane(sequence, index + 12));
+            }
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12)
+                + Long.rotateLeft(v4, 18);
+            hash = xxMerge(hash, v1);
+            hash = xxMerge(hash, v2);
+            hash = xxMerge(hash, v3);
+            hash = xxMerge(hash, v4);
+        } else {
+            hash = XX_PRIME_5;
+        }
+        hash += 2L * length;
+        for (; index + 4 <= length; index += 4) {
+            hash ^= xxRound(0, lane(sequence, index));
+            hash = Long.rotateLeft(hash, 27) * XX_PRIME_1 + XX_PRIME_4;
+        }
+        if (index + 2 <= length) {
+            long word = sequence.charAt(index) | (long) sequence.charAt(index + 1) << 16;
+            hash ^= word * XX_PRIME_1;
+            hash = Long.rotateLeft(hash, 23) * XX_PRIME_2 + XX_PRIME_3;
+            index += 2;
+        }
+        if (index < length) {
+            char last = sequence.charAt(index);
+            hash ^= (last & 0xFF) * XX_PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * XX_PRIME_1;
+            hash ^= (last >>> 8) * XX_PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * XX_PRIME_1;
+        }
+        hash ^= hash >>> 33;
+        hash *= XX_PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= XX_PRIME_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    /**
+     * Writes the two halves of the hash into the result.
+     */
+    static void murmur3Hash128(final CharSequence sequence, final long[] result) {
+        int length = sequence.length();
+        long h1 = 0;
+        long h2 = 0;
+        int index = 0;
+        for (; index + 8 <= length; index += 8) {
+            h1 ^= murmurMixK1(lane(sequence, index));
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52DCE729;
+            h2 ^= murmurMixK2(lane(sequence, index + 4));
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495AB5;
+        }
+        int remaining = length - index;
+        if (remaining > 4) {
+            h2 ^= murmurMixK2(partialLane(sequence, index + 4, remaining - 4));
+        }
+        if (remaining > 0) {
+            h1 ^= murmurMixK1(partialLane(sequence, index, Math.min(4, remaining)));
+        }
+        h1 ^= 2L * length;
+        h2 ^= 2L * length;
+        h1 += h2;
+        h2 += h1;
+        h1 = murmurFinalMix(h1);
+        h2 = murmurFinalMix(h2);
+        h1 += h2;
+        h2 += h1;
+        result[0] = h1;
+        result[1] = h2;
+    }
+
+    /**
+     * Four characters as the little-endian long of their UTF-16 bytes.
+     */
+    private static long lane(final CharSequence sequence, final int index) {
+        return sequence.charAt(index) | (long) sequence.charAt(index + 1) << 16
+            | (long) sequence.charAt(index + 2) << 32 | (long) sequence.charAt(index + 3) << 48;
+    }
+
+    private static long partialLane(final CharSequence sequence, final int index, final int count) {
+        long lane = 0;
+        for (int i = count - 1; i >= 0; i--) {
+            lane = lane << 16 | sequence.charAt(index + i);
+        }
+        return lane;
+    }
+
+    private static long xxRound(final long accumulator, final long input) {
+        return Long.rotateLeft(accumulator + input * XX_PRIME_2, 31) * XX_PRIME_1;
+    }
+
+    private static long xxMerge(final long hash, final long value) {
+        return (hash ^ xxRound(0, value)) * XX_PRIME_1 + XX_PRIME_4;
+    }
+
+    private static long murmurMixK1(final long k1) {
+        return Long.rotateLeft(k1 * MURMUR_C1, 31) * MURMUR_C2;
+    }
+
+    private static long murmurMixK2(final long k2) {
+        return Long.rotateLeft(k2 * MURMUR_C2, 33) * MURMUR_C1;
+    }
+
+    private static long murmurFinalMix(final long value) {
+        long k = value;
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static void appendHex(final StringBuilder builder, final long value) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            builder.append(DIGITS[(int) (value >>> shift) & 0xF]);
+        }
+    }
+
+    private static void appendLittleEndianHex(final StringBuilder builder, final long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            builder.append(DIGITS[(int) (value >>> shift + 4) & 0xF]).append(DIGITS[(int) (value >>> shift) & 0xF]);
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.dilax.mobile.model.network.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+
+/**
+ * Multimap from int keys, like stop or vehicle ids, to values. Keys are kept in an open addressing table with linear
+ * probing and are listed in order of first insertion.
+ * @see AbstractPrimitiveMultimap
+ */
+public class IntObjectMultimap<V> extends AbstractPrimitiveMultimap<V> {
+
+    private int[] keys;
+
+    /** Group of the key in the same slot plus one, zero for an empty slot. */
+    private int[] slots;
+
+    /** Key of every group. */
+    private int[] groupKeys;
+
+    protected IntObjectMultimap(final int expectedKeys, final int expectedValues) {
+        super(expectedKeys, expectedValues);
+        int capacity = Integer.highestOneBit(Math.max(4, expectedKeys * 2 - 1)) << 1;
+        this.keys = new int[capacity];
+        this.slots = new int[capacity];
+        this.groupKeys = new int[expectedKeys];
+    }
+
+    public static <V> IntObjectMultimap<V> create() {
+        return new IntObjectMultimap<V>(0, 0);
+    }
+
+    public static <V> IntObjectMultimap<V> create(final int expectedKeys, final int expectedValues) {
+        return new IntObjectMultimap<V>(expectedKeys, expectedValues);
+    }
+
+    public void put(final int key, final V value) {
+        int slot = findSlot(key);
+        int group = slots[slot] - 1;
+        if (group < 0) {
+            group = addGroup();
+            if (group == groupKeys.length) {
+                groupKeys = Arrays.copyOf(groupKeys, Math.max(4, group * 2));
+            }
+            groupKeys[group] = key;
+            keys[slot] = key;
+            slots[slot] = group + 1;
+            if (keyCount() * 2 > slots.length) {
+                rehash(slots.length * 2);
+            }
+        }
+        addToGroup(group, value);
+    }
+
+    /**
+     * An unmodifiable view of the values of the key in insertion order, empty if there are none.
+     */
+    public List<V> get(final int key) {
+        return getGroup(slots[findSlot(key)] - 1);
+    }
+
+    public boolean containsKey(final int key) {
+        return slots[findSlot(key)] != 0;
+    }
+
+    /**
+     * The number of values of the key.
+     */
+    public int count(final int key) {
+        return getGroupSize(slots[findSlot(key)] - 1);
+    }
+
+    /**
+     * The distinct keys, in order of first insertion.
+     */
+    public int[] keys() {
+        return Arrays.copyOf(groupKeys, keyCount());
+    }
+
+    /**
+     * A Guava multimap with the same entries, for callers that need one.
+     */
+    public ListMultimap<Integer, V> toMultimap() {
+        ListMultimap<Integer, V> multimap = ArrayListMultimap.create(keyCount(), 1);
+        for (int group = 0; group < keyCount(); group++) {
+            multimap.putAll(groupKeys[group], getGroup(group));
+        }
+        return multimap;
+    }
+
+    /**
+     * The slot of the key, or the empty slot where it would go.
+     */
+    private int findSlot(final int key) {
+        int mask = slots.length - 1;
+        int slot = hash(key) & mask;
+        while (slots[slot] != 0 && keys[slot] != key) {
+            slot = slot + 1 & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(final int capacity) {
+        keys = new int[capacity];
+        slots = new int[capacity];
+        for (int group = 0; group < keyCount(); group++) {
+            int slot = findSlot(groupKeys[group]);
+            keys[slot] = groupKeys[group];
+            slots[slot] = group + 1;
+        }
+    }
+
+    private static int hash(final int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ hash >>> 16;
+    }
+
+}
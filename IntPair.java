@@ -0,0 +1,73 @@
+package com.dilax.mobile.model.network.util;
+
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.apache.commons.lang.builder.ToStringStyle;
+
+/**
+ * Pair of unboxed ints, for example two identifiers used together as a map key.
+ */
+public class IntPair implements Comparable<IntPair> {
+
+    private final int first;
+
+    private final int second;
+
+    protected IntPair(final int first, final int second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    public static IntPair of(final int first, final int second) {
+        return new IntPair(first, second);
+    }
+
+    /**
+     * @throws NullPointerException if an element of the pair is null
+     */
+    public static IntPair from(final Pair<Integer, Integer> pair) {
+        return new IntPair(pair.getFirst(), pair.getSecond());
+    }
+
+    public int getFirst() {
+        return first;
+    }
+
+    public int getSecond() {
+        return second;
+    }
+
+    public Pair<Integer, Integer> toPair() {
+        return Pair.of(first, second);
+    }
+
+    @Override
+    public int compareTo(final IntPair other) {
+        if (first != other.first) {
+            return first < other.first ? -1 : 1;
+        }
+        if (second != other.second) {
+            return second < other.second ? -1 : 1;
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append(first).append(second).toString();
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof IntPair) {
+            IntPair pair = (IntPair) object;
+            return first == pair.first && second == pair.second;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * first + second;
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.dilax.mobile.model.network.util;
+
+/**
+ * List of int pairs backed by two int arrays, returned as IntPair without boxing. getFirst() and getSecond() read an
+ * element without creating a pair.
+ * @see AbstractPairList
+ */
+public class IntPairList extends AbstractPairList<IntPair> {
+
+    protected IntPairList(final int capacity) {
+        super(int.class, int.class, capacity);
+    }
+
+    public static IntPairList create() {
+        return new IntPairList(0);
+    }
+
+    public static IntPairList create(final int capacity) {
+        return new IntPairList(capacity);
+    }
+
+    public void add(final int first, final int second) {
+        int index = reserve(size);
+        ((int[]) firsts)[index] = first;
+        ((int[]) seconds)[index] = second;
+    }
+
+    public int getFirst(final int index) {
+        return ((int[]) firsts)[checkIndex(index)];
+    }
+
+    public int getSecond(final int index) {
+        return ((int[]) seconds)[checkIndex(index)];
+    }
+
+    @Override
+    public IntPair get(final int index) {
+        return IntPair.of(getFirst(index), getSecond(index));
+    }
+
+    @Override
+    public IntPair set(final int index, final IntPair pair) {
+        IntPair previous = get(index);
+        ((int[]) firsts)[index] = pair.getFirst();
+        ((int[]) seconds)[index] = pair.getSecond();
+        return previous;
+    }
+
+    @Override
+    public void add(final int index, final IntPair pair) {
+        int reserved = reserve(index);
+        ((int[]) firsts)[reserved] = pair.getFirst();
+        ((int[]) seconds)[reserved] = pair.getSecond();
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.dilax.mobile.model.network.util;
+
+public class IntTwinPair extends IntPair {
+
+    protected IntTwinPair(final int first, final int second) {
+        super(first, second);
+    }
+
+    public static IntTwinPair from(final int first, final int second) {
+        return new IntTwinPair(first, second);
+    }
+
+    /**
+     * @throws NullPointerException if an element of the pair is null
+     */
+    public static IntTwinPair from(final TwinPair<Integer> pair) {
+        return new IntTwinPair(pair.getFirst(), pair.getSecond());
+    }
+
+    public TwinPair<Integer> toTwinPair() {
+        return TwinPair.from(getFirst(), getSecond());
+    }
+
+}
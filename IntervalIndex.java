@@ -0,0 +1,175 @@
+package com.dilax.mobile.model.network.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Immutable index of periods with inclusive bounds, given as longs in any unit, for example epoch days or epoch
+ * millis. The periods are sorted by start and every node of the implicit binary tree over them knows the maximum end
+ * of its subtree, so a query skips the subtrees which cannot overlap and finds the k results in O(log n + k) for
+ * typical timetables. Results are sorted by start.
+ */
+public class IntervalIndex<V> {
+
+    private final long[] starts;
+
+    private final long[] ends;
+
+    private final long[] maxEnds;
+
+    /** Position of the period in the original values. */
+    private final int[] positions;
+
+    private final List<V> values;
+
+    /**
+     * Keeps the values list, which the factories copy from the arguments of the caller.
+     */
+    private IntervalIndex(final long[] starts, final long[] ends, final List<V> values) {
+        int size = values.size();
+        if (starts.length != size || ends.length != size) {
+            throw new IllegalArgumentException(Utils.format("Different sizes: {}, {}, {}", starts.length,
+                ends.length, size));
+        }
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            if (ends[i] < starts[i]) {
+                throw new IllegalArgumentException(Utils.format("Period {} ends before its start: {}, {}", i,
+                    starts[i], ends[i]));
+            }
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>(){
+
+            @Override
+            public int compare(final Integer first, final Integer second) {
+                long firstStart = starts[first];
+                long secondStart = starts[second];
+                return firstStart < secondStart ? -1 : firstStart == secondStart ? 0 : 1;
+            }
+
+        });
+        this.starts = new long[size];
+        this.ends = new long[size];
+        this.maxEnds = new long[size];
+        this.positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.positions[i] = order[i];
+            this.starts[i] = starts[order[i]];
+            this.ends[i] = ends[order[i]];
+        }
+        this.values = values;
+        computeMaxEnds(0, size);
+    }
+
+    /**
+     * @param values the value of every period, in the order of starts and ends, copied by the index
+     */
+    public static <V> IntervalIndex<V> create(final long[] starts, final long[] ends, final List<V> values) {
+        return new IntervalIndex<V>(starts, ends, Lists.newArrayList(values));
+    }
+
+    /**
+     * Indexes the periods by epoch day. The periods are copied, still as epoch days.
+     */
+    public static IntervalIndex<TwinPair<LocalDate>> create(final EpochDayPairList periods) {
+        long[] starts = new long[periods.size()];
+        long[] ends = new long[periods.size()];
+        EpochDayPairList copy = EpochDayPairList.create(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            int start = periods.getFirstEpochDay(i);
+            int end = periods.getSecondEpochDay(i);
+            starts[i] = start;
+            ends[i] = end;
+            copy.addEpochDays(start, end);
+        }
+        return new IntervalIndex<TwinPair<LocalDate>>(starts, ends, copy);
+    }
+
+    /**
+     * Indexes the elements by epoch day, taking the bounds from lambdaj arguments like
+     * on(Timetable.class).getValidFrom().
+     */
+    public static <V> IntervalIndex<V> create(final Collection<V> collection, final LocalDate startField,
+        final LocalDate endField) {
+        Accessor<V, LocalDate> startAccessor = Accessor.of(startField);
+        Accessor<V, LocalDate> endAccessor = Accessor.of(endField);
+        List<V> values = Lists.newArrayList(collection);
+        long[] starts = new long[values.size()];
+        long[] ends = new long[values.size()];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = Utils.toEpochDay(startAccessor.get(values.get(i)));
+            ends[i] = Utils.toEpochDay(endAccessor.get(values.get(i)));
+        }
+        return new IntervalIndex<V>(starts, ends, values);
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    /**
+     * The values of the periods having at least one point in common with the given one.
+     */
+    public List<V> getOverlapping(final long start, final long end) {
+        List<V> result = Lists.newArrayList();
+        collect(0, positions.length, start, end, result);
+        return result;
+    }
+
+    /**
+     * The values of the periods containing the given point.
+     */
+    public List<V> getContaining(final long point) {
+        return getOverlapping(point, point);
+    }
+
+    /**
+     * Every couple of overlapping periods, as positions in the original values with the smaller start first. Costs
+     * O(n + k) with a sweep over the sorted starts, instead of comparing every period with every other.
+     */
+    public IntPairList getOverlappingPairs() {
+        IntPairList result = IntPairList.create();
+        for (int i = 0; i < starts.length; i++) {
+            for (int j = i + 1; j < starts.length && starts[j] <= ends[i]; j++) {
+                result.add(positions[i], positions[j]);
+            }
+        }
+        return result;
+    }
+
+    private long computeMaxEnds(final int from, final int to) {
+        if (from >= to) {
+            return Long.MIN_VALUE;
+        }
+        int middle = (from + to) >>> 1;
+        long maxEnd = Math.max(ends[middle], Math.max(computeMaxEnds(from, middle), computeMaxEnds(middle + 1, to)));
+        maxEnds[middle] = maxEnd;
+        return maxEnd;
+    }
+
+    private void collect(final int from, final int to, final long start, final long end, final List<V> result) {
+        if (from >= to) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        if (maxEnds[middle] < start) {
+            return;
+        }
+        collect(from, middle, start, end, result);
+        if (starts[middle] > end) {
+            return;
+        }
+        if (ends[middle] >= start) {
+            result.add(values.get(positions[middle]));
+        }
+        collect(middle + 1, to, start, end, result);
+    }
+
+}
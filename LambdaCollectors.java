@@ -0,0 +1,337 @@
+package com.dilax.mobile.model.network.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collector.Characteristics;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+
+/**
+ * Collectors building the same results as the LambdaUtils methods of the same name, to index a stream of records,
+ * read from a file or a cursor, without loading it in a collection first. Fields are given the lambdaj way, like
+ * on(Stop.class).getId(). The combiners merge the partial result of the following elements into the one of the
+ * preceding elements, so parallel ordered streams give the same result as sequential ones.
+ * <p>
+ * The concurrent variants fill one shared result from all the threads of a parallel stream instead of merging a result
+ * per thread. They do not keep the order of the stream, and their keys cannot be null.
+ */
+public class LambdaCollectors {
+
+    private LambdaCollectors() {
+    }
+
+    public static <C, A> Collector<A, ?, Multimap<C, A>> multiIndex(final C keyField) {
+        final Accessor<A, C> keyAccessor = Accessor.of(keyField);
+        return Collector.of(LambdaCollectors.<C, A> newArrayListMultimap(), new BiConsumer<Multimap<C, A>, A>(){
+
+            @Override
+            public void accept(final Multimap<C, A> multimap, final A element) {
+                multimap.put(keyAccessor.get(element), element);
+            }
+
+        }, LambdaCollectors.<C, A> mergeMultimaps(), Characteristics.IDENTITY_FINISH);
+    }
+
+    public static <C, A, T> Collector<T, ?, Multimap<C, A>> multiIndexAndConvert(final C keyField,
+        final A valueField) {
+        final Accessor<T, C> keyAccessor = Accessor.of(keyField);
+        final Accessor<T, A> valueAccessor = Accessor.of(valueField);
+        return Collector.of(LambdaCollectors.<C, A> newArrayListMultimap(), new BiConsumer<Multimap<C, A>, T>(){
+
+            @Override
+            public void accept(final Multimap<C, A> multimap, final T element) {
+                multimap.put(keyAccessor.get(element), valueAccessor.get(element));
+            }
+
+        }, LambdaCollectors.<C, A> mergeMultimaps(), Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Values are grouped by key while they are collected, keys in the order of their first occurrence, and copied
+     * into the LinkedListMultimap of LambdaUtils.multiIndexAndConvertOrdered() at the end.
+     */
+    public static <C, A, T> Collector<T, ?, Multimap<C, A>> multiIndexAndConvertOrdered(final C keyField,
+        final A valueField) {
+        final Accessor<T, C> keyAccessor = Accessor.of(keyField);
+        final Accessor<T, A> valueAccessor = Accessor.of(valueField);
+        return Collector.of(new Supplier<Map<C, List<A>>>(){
+
+            @Override
+            public Map<C, List<A>> get() {
+                return Maps.newLinkedHashMap();
+            }
+
+        }, new BiConsumer<Map<C, List<A>>, T>(){
+
+            @Override
+            public void accept(final Map<C, List<A>> groups, final T element) {
+                C key = keyAccessor.get(element);
+                List<A> values = groups.get(key);
+                if (values == null) {
+                    values = Lists.newArrayList();
+                    groups.put(key, values);
+                }
+                values.add(valueAccessor.get(element));
+            }
+
+        }, new BinaryOperator<Map<C, List<A>>>(){
+
+            @Override
+            public Map<C, List<A>> apply(final Map<C, List<A>> left, final Map<C, List<A>> right) {
+                for (Map.Entry<C, List<A>> entry : right.entrySet()) {
+                    List<A> values = left.get(entry.getKey());
+                    if (values == null) {
+                        left.put(entry.getKey(), entry.getValue());
+                    } else {
+                        values.addAll(entry.getValue());
+                    }
+                }
+                return left;
+            }
+
+        }, new Function<Map<C, List<A>>, Multimap<C, A>>(){
+
+            @Override
+            public Multimap<C, A> apply(final Map<C, List<A>> groups) {
+                Multimap<C, A> result = LinkedListMultimap.create();
+                for (Map.Entry<C, List<A>> entry : groups.entrySet()) {
+                    result.putAll(entry.getKey(), entry.getValue());
+                }
+                return result;
+            }
+
+        });
+    }
+
+    /**
+     * The last value of a key wins, as in LambdaUtils.indexAndConvert().
+     */
+    public static <C, A, T> Collector<T, ?, Map<C, A>> indexAndConvert(final C keyField, final A valueField) {
+        final Accessor<T, C> keyAccessor = Accessor.of(keyField);
+        final Accessor<T, A> valueAccessor = Accessor.of(valueField);
+        return Collector.of(new Supplier<Map<C, A>>(){
+
+            @Override
+            public Map<C, A> get() {
+                return Maps.newLinkedHashMap();
+            }
+
+        }, new BiConsumer<Map<C, A>, T>(){
+
+            @Override
+            public void accept(final Map<C, A> map, final T element) {
+                map.put(keyAccessor.get(element), valueAccessor.get(element));
+            }
+
+        }, new BinaryOperator<Map<C, A>>(){
+
+            @Override
+            public Map<C, A> apply(final Map<C, A> left, final Map<C, A> right) {
+                left.putAll(right);
+                return left;
+            }
+
+        }, Characteristics.IDENTITY_FINISH);
+    }
+
+    public static <C, A> Collector<C, ?, Set<A>> extractDistinct(final A field) {
+        final Accessor<C, A> accessor = Accessor.of(field);
+        return Collector.of(new Supplier<Set<A>>(){
+
+            @Override
+            public Set<A> get() {
+                return Sets.newLinkedHashSet();
+            }
+
+        }, new BiConsumer<Set<A>, C>(){
+
+            @Override
+            public void accept(final Set<A> set, final C element) {
+                set.add(accessor.get(element));
+            }
+
+        }, new BinaryOperator<Set<A>>(){
+
+            @Override
+            public Set<A> apply(final Set<A> left, final Set<A> right) {
+                left.addAll(right);
+                return left;
+            }
+
+        }, Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Like multiIndex(), filling one ConcurrentMultimap, copied into an ArrayListMultimap at the end.
+     */
+    public static <C, A> Collector<A, ?, Multimap<C, A>> multiIndexConcurrent(final C keyField) {
+        final Accessor<A, C> keyAccessor = Accessor.of(keyField);
+        BiConsumer<ConcurrentMultimap<C, A>, A> accumulator = new BiConsumer<ConcurrentMultimap<C, A>, A>(){
+
+            @Override
+            public void accept(final ConcurrentMultimap<C, A> multimap, final A element) {
+                multimap.put(keyAccessor.get(element), element);
+            }
+
+        };
+        return Collector.of(LambdaCollectors.<C, A> newConcurrentMultimap(), accumulator,
+            LambdaCollectors.<C, A> mergeConcurrentMultimaps(), LambdaCollectors.<C, A> toMultimap(),
+            Characteristics.CONCURRENT, Characteristics.UNORDERED);
+    }
+
+    /**
+     * Like multiIndexAndConvert(), filling one ConcurrentMultimap, copied into an ArrayListMultimap at the end.
+     */
+    public static <C, A, T> Collector<T, ?, Multimap<C, A>> multiIndexAndConvertConcurrent(final C keyField,
+        final A valueField) {
+        final Accessor<T, C> keyAccessor = Accessor.of(keyField);
+        final Accessor<T, A> valueAccessor = Accessor.of(valueField);
+        BiConsumer<ConcurrentMultimap<C, A>, T> accumulator = new BiConsumer<ConcurrentMultimap<C, A>, T>(){
+
+            @Override
+            public void accept(final ConcurrentMultimap<C, A> multimap, final T element) {
+                multimap.put(keyAccessor.get(element), valueAccessor.get(element));
+            }
+
+        };
+        return Collector.of(LambdaCollectors.<C, A> newConcurrentMultimap(), accumulator,
+            LambdaCollectors.<C, A> mergeConcurrentMultimaps(), LambdaCollectors.<C, A> toMultimap(),
+            Characteristics.CONCURRENT, Characteristics.UNORDERED);
+    }
+
+    /**
+     * Like indexAndConvert(), into a ConcurrentHashMap, so values cannot be null either. Which value of a repeated key
+     * wins is not defined.
+     */
+    public static <C, A, T> Collector<T, ?, Map<C, A>> indexAndConvertConcurrent(final C keyField,
+        final A valueField) {
+        final Accessor<T, C> keyAccessor = Accessor.of(keyField);
+        final Accessor<T, A> valueAccessor = Accessor.of(valueField);
+        return Collector.of(new Supplier<Map<C, A>>(){
+
+            @Override
+            public Map<C, A> get() {
+                return new ConcurrentHashMap<C, A>();
+            }
+
+        }, new BiConsumer<Map<C, A>, T>(){
+
+            @Override
+            public void accept(final Map<C, A> map, final T element) {
+                map.put(keyAccessor.get(element), valueAccessor.get(element));
+            }
+
+        }, new BinaryOperator<Map<C, A>>(){
+
+            @Override
+            public Map<C, A> apply(final Map<C, A> left, final Map<C, A> right) {
+                left.putAll(right);
+                return left;
+            }
+
+        }, Characteristics.IDENTITY_FINISH, Characteristics.CONCURRENT, Characteristics.UNORDERED);
+    }
+
+    /**
+     * Like extractDistinct(), into a concurrent set without order.
+     */
+    public static <C, A> Collector<C, ?, Set<A>> extractDistinctConcurrent(final A field) {
+        final Accessor<C, A> accessor = Accessor.of(field);
+        return Collector.of(new Supplier<Set<A>>(){
+
+            @Override
+            public Set<A> get() {
+                return ConcurrentHashMap.newKeySet();
+            }
+
+        }, new BiConsumer<Set<A>, C>(){
+
+            @Override
+            public void accept(final Set<A> set, final C element) {
+                set.add(accessor.get(element));
+            }
+
+        }, new BinaryOperator<Set<A>>(){
+
+            @Override
+            public Set<A> apply(final Set<A> left, final Set<A> right) {
+                left.addAll(right);
+                return left;
+            }
+
+        }, Characteristics.IDENTITY_FINISH, Characteristics.CONCURRENT, Characteristics.UNORDERED);
+    }
+
+    private static <C, A> Supplier<Multimap<C, A>> newArrayListMultimap() {
+        return new Supplier<Multimap<C, A>>(){
+
+            @Override
+            public Multimap<C, A> get() {
+                return ArrayListMultimap.create();
+            }
+
+        };
+    }
+
+    private static <C, A> BinaryOperator<Multimap<C, A>> mergeMultimaps() {
+        return new BinaryOperator<Multimap<C, A>>(){
+
+            @Override
+            public Multimap<C, A> apply(final Multimap<C, A> left, final Multimap<C, A> right) {
+                left.putAll(right);
+                return left;
+            }
+
+        };
+    }
+
+    private static <C, A> Supplier<ConcurrentMultimap<C, A>> newConcurrentMultimap() {
+        return new Supplier<ConcurrentMultimap<C, A>>(){
+
+            @Override
+            public ConcurrentMultimap<C, A> get() {
+                return ConcurrentMultimap.create();
+            }
+
+        };
+    }
+
+    private static <C, A> BinaryOperator<ConcurrentMultimap<C, A>> mergeConcurrentMultimaps() {
+        return new BinaryOperator<ConcurrentMultimap<C, A>>(){
+
+            @Override
+            public ConcurrentMultimap<C, A> apply(final ConcurrentMultimap<C, A> left,
+                final ConcurrentMultimap<C, A> right) {
+                for (C key : right.keySet()) {
+                    left.putAll(key, right.get(key));
+                }
+                return left;
+            }
+
+        };
+    }
+
+    private static <C, A> Function<ConcurrentMultimap<C, A>, Multimap<C, A>> toMultimap() {
+        return new Function<ConcurrentMultimap<C, A>, Multimap<C, A>>(){
+
+            @Override
+            public Multimap<C, A> apply(final ConcurrentMultimap<C, A> multimap) {
+                return multimap.toMultimap();
+            }
+
+        };
+    }
+
+}
@@ -1,21 +1,23 @@
 package com.dilax.mobile.model.network.util;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
 import org.hamcrest.BaseMatcher;
-import org.hamcrest.Matchers;
 import org.joda.time.LocalDateTime;
 import org.joda.time.Seconds;
 
 import ch.lambdaj.Lambda;
-import ch.lambdaj.function.convert.ArgumentConverter;
 
 import com.google.common.base.Functions;
+import com.google.common.base.Objects;
 import com.google.common.base.Predicates;
+import com.google.common.base.Supplier;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.Iterables;
@@ -34,39 +36,80 @@ import com.google.common.collect.Sets;
  */
 public class LambdaUtils {
 
+    /**
+     * Size below which the parallel methods run sequentially, as splitting would cost more than it saves.
+     */
+    public static final int PARALLEL_THRESHOLD = 8192;
+
     public static <C, A> A coalesce(final Iterable<C> iterable, final A field) {
-        List<A> list = Lambda.extract(iterable, field);
-        return CollectionUtils.coalesce(list);
+        Accessor<C, A> accessor = Accessor.of(field);
+        return CollectionUtils.coalesce(Iterables.transform(iterable, accessor));
     }
 
     public static <C, A> Set<A> extractDistinct(final Collection<C> collection, final A field) {
-        return Sets.newLinkedHashSet(Lambda.extract(collection, field));
+        Accessor<C, A> accessor = Accessor.of(field);
+        Set<A> result = Sets.newLinkedHashSet();
+        for (C element : collection) {
+            result.add(accessor.get(element));
+        }
+        return result;
+    }
+
+    /**
+     * Like extractDistinct(), as a view that extracts the field and skips the repeated values while it is iterated,
+     * so that stopping early does not pay for the rest of the collection. Every iteration starts over.
+     */
+    public static <C, A> Iterable<A> extractDistinctLazily(final Iterable<C> iterable, final A field) {
+        final Accessor<C, A> accessor = Accessor.of(field);
+        return new Iterable<A>(){
+
+            @Override
+            public Iterator<A> iterator() {
+                final Iterator<C> iterator = iterable.iterator();
+                final Set<A> seen = Sets.newHashSet();
+                return new AbstractIterator<A>(){
+
+                    @Override
+                    protected A computeNext() {
+                        while (iterator.hasNext()) {
+                            A value = accessor.get(iterator.next());
+                            if (seen.add(value)) {
+                                return value;
+                            }
+                        }
+                        return endOfData();
+                    }
+
+                };
+            }
+
+        };
     }
 
-    public static <C, A> Collection<TwinPair<A>> extractTwinPairs(final Collection<C> collection, final A firstField,
+    public static <C, A> TwinPairList<A> extractTwinPairs(final Collection<C> collection, final A firstField,
         final A secondField) {
-        Collection<TwinPair<A>> pairs = Lists.newArrayList();
-        ArgumentConverter<C, A> firstArgumentConverter = new ArgumentConverter<C, A>(firstField);
-        ArgumentConverter<C, A> secondArgumentConverter = new ArgumentConverter<C, A>(secondField);
+        TwinPairList<A> pairs = TwinPairList.create(collection.size());
+        Accessor<C, A> firstAccessor = Accessor.of(firstField);
+        Accessor<C, A> secondAccessor = Accessor.of(secondField);
         for (C element : collection) {
-            pairs.add(TwinPair.from(firstArgumentConverter.convert(element), secondArgumentConverter.convert(element)));
+            pairs.add(firstAccessor.get(element), secondAccessor.get(element));
         }
         return pairs;
     }
 
-    public static <C, A, T> Collection<Pair<A, T>> extractPairs(final Collection<C> collection, final A firstField,
+    public static <C, A, T> PairList<A, T> extractPairs(final Collection<C> collection, final A firstField,
         final T secondField) {
-        Collection<Pair<A, T>> pairs = Lists.newArrayList();
-        ArgumentConverter<C, A> firstArgumentConverter = new ArgumentConverter<C, A>(firstField);
-        ArgumentConverter<C, T> secondArgumentConverter = new ArgumentConverter<C, T>(secondField);
+        PairList<A, T> pairs = PairList.create(collection.size());
+        Accessor<C, A> firstAccessor = Accessor.of(firstField);
+        Accessor<C, T> secondAccessor = Accessor.of(secondField);
         for (C element : collection) {
-            pairs.add(Pair.of(firstArgumentConverter.convert(element), secondArgumentConverter.convert(element)));
+            pairs.add(firstAccessor.get(element), secondAccessor.get(element));
         }
         return pairs;
     }
 
     /**
-     * Extracts a constant field from a collection.
+     * Extracts a constant field from a collection, stopping at the first value differing from the first one.
      * @param collection
      * @param field
      * @return
@@ -74,7 +117,20 @@ public class LambdaUtils {
      * @throws IllegalArgumentException if the result is not unique
      */
     public static <C, A> A extractUnique(final Collection<C> collection, final A field) {
-        return Iterables.getOnlyElement(extractDistinct(collection, field));
+        Iterator<C> iterator = collection.iterator();
+        if (!iterator.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Accessor<C, A> accessor = Accessor.of(field);
+        A result = accessor.get(iterator.next());
+        while (iterator.hasNext()) {
+            A value = accessor.get(iterator.next());
+            if (!Objects.equal(result, value)) {
+                throw new IllegalArgumentException(Utils.format("Expected one value but was: <{}, {}, ...>", result,
+                    value));
+            }
+        }
+        return result;
     }
 
     public static <C, A> Collection<A> getAllValues(final Map<C, A> map, final Collection<C> keys) {
@@ -92,68 +148,436 @@ public class LambdaUtils {
 
     public static <C, A, T> Map<C, A> indexAndConvert(final Collection<T> collection, final C keyField,
         final A valueField) {
-        Map<C, T> map = Lambda.index(collection, keyField);
-        return Lambda.convertMap(map, valueField);
+        Accessor<T, C> keyAccessor = Accessor.of(keyField);
+        Accessor<T, A> valueAccessor = Accessor.of(valueField);
+        Map<C, A> map = Maps.newLinkedHashMap();
+        for (T element : collection) {
+            map.put(keyAccessor.get(element), valueAccessor.get(element));
+        }
+        return map;
     }
 
     public static <C, A> Multimap<C, A> multiIndex(final Collection<A> collection, final C keyField) {
+        Accessor<A, C> keyAccessor = Accessor.of(keyField);
         Multimap<C, A> multimap = ArrayListMultimap.create();
         for (A element : collection) {
-            multimap.put(new ArgumentConverter<A, C>(keyField).convert(element), element);
+            multimap.put(keyAccessor.get(element), element);
         }
         return multimap;
     }
 
     public static <C, A, T> Multimap<C, A> multiIndexAndConvert(final Collection<T> collection, final C keyField,
         final A valueField) {
-        Multimap<C, T> multimap = ArrayListMultimap.create();
-        for (T element : collection) {
-            multimap.put(new ArgumentConverter<T, C>(keyField).convert(element), element);
-        }
+        Accessor<T, C> keyAccessor = Accessor.of(keyField);
+        Accessor<T, A> valueAccessor = Accessor.of(valueField);
         Multimap<C, A> result = ArrayListMultimap.create();
-        for (C key : multimap.keySet()) {
-            result.putAll(key, Lambda.extract(multimap.get(key), valueField));
+        for (T element : collection) {
+            result.put(keyAccessor.get(element), valueAccessor.get(element));
         }
         return result;
     }
 
     public static <C, A, T> Multimap<C, A> multiIndexAndConvertOrdered(final Collection<T> collection,
         final C keyField, final A valueField) {
-        Multimap<C, T> multimap = LinkedListMultimap.create();
+        Accessor<T, C> keyAccessor = Accessor.of(keyField);
+        Accessor<T, A> valueAccessor = Accessor.of(valueField);
+        Multimap<C, A> multimap = LinkedListMultimap.create();
         for (T element : collection) {
-            multimap.put(new ArgumentConverter<T, C>(keyField).convert(element), element);
+            multimap.put(keyAccessor.get(element), valueAccessor.get(element));
         }
+        // Entries are regrouped by key, as keys appear for the first time.
         Multimap<C, A> result = LinkedListMultimap.create();
         for (C key : multimap.keySet()) {
-            result.putAll(key, Lambda.extract(multimap.get(key), valueField));
+            result.putAll(key, multimap.get(key));
         }
         return result;
     }
 
-    // TODO is it necessary to make a copy?
-    public static <C, A> Map<C, List<A>> multiIndexPreservingOrder(final List<A> list, final C keyField) {
+    /**
+     * Like multiIndex(), for a field of type int, like on(Stop.class).getId(). The result stores the keys unboxed and
+     * the values of all the keys in one array.
+     * @throws NullPointerException if a key is null along the chain of getters
+     */
+    public static <A> IntObjectMultimap<A> multiIndexByInt(final Collection<A> collection, final int keyField) {
+        Accessor<A, Integer> keyAccessor = Accessor.of(keyField);
+        IntObjectMultimap<A> multimap = IntObjectMultimap.create(0, collection.size());
+        for (A element : collection) {
+            multimap.put(keyAccessor.get(element), element);
+        }
+        return multimap;
+    }
 
+    /**
+     * Like multiIndexAndConvert(), for a key field of type int.
+     * @throws NullPointerException if a key is null along the chain of getters
+     */
+    public static <A, T> IntObjectMultimap<A> multiIndexAndConvertByInt(final Collection<T> collection,
+        final int keyField, final A valueField) {
+        Accessor<T, Integer> keyAccessor = Accessor.of(keyField);
+        Accessor<T, A> valueAccessor = Accessor.of(valueField);
+        IntObjectMultimap<A> multimap = IntObjectMultimap.create(0, collection.size());
+        for (T element : collection) {
+            multimap.put(keyAccessor.get(element), valueAccessor.get(element));
+        }
+        return multimap;
+    }
+
+    /**
+     * Like multiIndex(), for a field of type long.
+     * @throws NullPointerException if a key is null along the chain of getters
+     */
+    public static <A> LongObjectMultimap<A> multiIndexByLong(final Collection<A> collection, final long keyField) {
+        Accessor<A, Long> keyAccessor = Accessor.of(keyField);
+        LongObjectMultimap<A> multimap = LongObjectMultimap.create(0, collection.size());
+        for (A element : collection) {
+            multimap.put(keyAccessor.get(element), element);
+        }
+        return multimap;
+    }
+
+    /**
+     * Like multiIndexAndConvert(), for a key field of type long.
+     * @throws NullPointerException if a key is null along the chain of getters
+     */
+    public static <A, T> LongObjectMultimap<A> multiIndexAndConvertByLong(final Collection<T> collection,
+        final long keyField, final A valueField) {
+        Accessor<T, Long> keyAccessor = Accessor.of(keyField);
+        Accessor<T, A> valueAccessor = Accessor.of(valueField);
+        LongObjectMultimap<A> multimap = LongObjectMultimap.create(0, collection.size());
+        for (T element : collection) {
+            multimap.put(keyAccessor.get(element), valueAccessor.get(element));
+        }
+        return multimap;
+    }
+
+    /**
+     * Groups the elements by key in a single pass. Keys keep the order of their first appearance and every group
+     * keeps the order of the list.
+     */
+    public static <C, A> Map<C, List<A>> multiIndexPreservingOrder(final List<A> list, final C keyField) {
         Map<C, List<A>> map = Maps.newLinkedHashMap();
+        return multiIndexPreservingOrder(list, keyField, map);
+    }
+
+    /**
+     * Like multiIndexPreservingOrder(), but groups into the map supplied by the factory, which decides the key order.
+     */
+    public static <C, A, M extends Map<C, List<A>>> M multiIndexPreservingOrder(final Iterable<A> iterable,
+        final C keyField, final Supplier<M> mapFactory) {
+        return multiIndexPreservingOrder(iterable, keyField, mapFactory.get());
+    }
+
+    /**
+     * Like multiIndex(), but groups into the multimap supplied by the factory, for example a LinkedListMultimap to
+     * preserve the order or a TreeMultimap to sort the keys.
+     */
+    public static <C, A, M extends Multimap<C, A>> M multiIndex(final Iterable<A> iterable, final C keyField,
+        final Supplier<M> multimapFactory) {
+        Accessor<A, C> keyAccessor = Accessor.of(keyField);
+        M multimap = multimapFactory.get();
+        for (A element : iterable) {
+            multimap.put(keyAccessor.get(element), element);
+        }
+        return multimap;
+    }
 
-        List<A> copyOfList = Lists.newArrayList(list);
-        while (!copyOfList.isEmpty()) {
-            A element = copyOfList.get(0);
-            C elementKey = Lambda.argument(keyField).evaluate(element);
-            List<A> similarElements = Lambda.select(copyOfList, Lambda.having(keyField, Matchers.equalTo(elementKey)));
-            map.put(elementKey, similarElements);
-            copyOfList.removeAll(similarElements);
+    private static <C, A, M extends Map<C, List<A>>> M multiIndexPreservingOrder(final Iterable<A> iterable,
+        final C keyField, final M map) {
+        Accessor<A, C> keyAccessor = Accessor.of(keyField);
+        for (A element : iterable) {
+            C key = keyAccessor.get(element);
+            List<A> similarElements = map.get(key);
+            if (similarElements == null) {
+                similarElements = Lists.newArrayList();
+                map.put(key, similarElements);
+            }
+            similarElements.add(element);
         }
         return map;
     }
 
+    /**
+     * Like extractDistinct(), on the common fork join pool for large collections. The order is the same.
+     */
+    public static <C, A> Set<A> extractDistinctParallel(final Collection<C> collection, final A field) {
+        if (collection.size() < PARALLEL_THRESHOLD) {
+            return extractDistinct(collection, field);
+        }
+        final Accessor<C, A> accessor = Accessor.of(field);
+        return ParallelReduction.invoke(collection, new ParallelReduction.Reducer<C, Set<A>>(){
+
+            @Override
+            public Set<A> reduce(final List<C> list, final int from, final int to) {
+                Set<A> result = Sets.newLinkedHashSet();
+                for (int i = from; i < to; i++) {
+                    result.add(accessor.get(list.get(i)));
+                }
+                return result;
+            }
+
+            @Override
+            public Set<A> merge(final Set<A> left, final Set<A> right) {
+                left.addAll(right);
+                return left;
+            }
+
+        });
+    }
+
+    /**
+     * Like extractPairs(), on the common fork join pool for large collections. Every thread writes its own slice of
+     * the arrays of the result, so nothing is merged.
+     */
+    public static <C, A, T> PairList<A, T> extractPairsParallel(final Collection<C> collection, final A firstField,
+        final T secondField) {
+        if (collection.size() < PARALLEL_THRESHOLD) {
+            return extractPairs(collection, firstField, secondField);
+        }
+        final Accessor<C, A> firstAccessor = Accessor.of(firstField);
+        final Accessor<C, T> secondAccessor = Accessor.of(secondField);
+        final Object[] firsts = new Object[collection.size()];
+        final Object[] seconds = new Object[collection.size()];
+        ParallelReduction.invoke(collection, new ParallelReduction.Reducer<C, Void>(){
+
+            @Override
+            public Void reduce(final List<C> list, final int from, final int to) {
+                for (int i = from; i < to; i++) {
+                    C element = list.get(i);
+                    firsts[i] = firstAccessor.get(element);
+                    seconds[i] = secondAccessor.get(element);
+                }
+                return null;
+            }
+
+            @Override
+            public Void merge(final Void left, final Void right) {
+                return null;
+            }
+
+        });
+        return PairList.wrap(firsts, seconds);
+    }
+
+    /**
+     * Like multiIndex(), on the common fork join pool for large collections. Every group keeps the order of the
+     * collection.
+     */
+    public static <C, A> Multimap<C, A> multiIndexParallel(final Collection<A> collection, final C keyField) {
+        if (collection.size() < PARALLEL_THRESHOLD) {
+            return multiIndex(collection, keyField);
+        }
+        final Accessor<A, C> keyAccessor = Accessor.of(keyField);
+        return ParallelReduction.invoke(collection, new MultimapReducer<A, C, A>(){
+
+            @Override
+            protected void put(final Multimap<C, A> multimap, final A element) {
+                multimap.put(keyAccessor.get(element), element);
+            }
+
+        });
+    }
+
+    /**
+     * Like multiIndexAndConvert(), on the common fork join pool for large collections. Every group keeps the order of
+     * the collection.
+     */
+    public static <C, A, T> Multimap<C, A> multiIndexAndConvertParallel(final Collection<T> collection,
+        final C keyField, final A valueField) {
+        if (collection.size() < PARALLEL_THRESHOLD) {
+            return multiIndexAndConvert(collection, keyField, valueField);
+        }
+        final Accessor<T, C> keyAccessor = Accessor.of(keyField);
+        final Accessor<T, A> valueAccessor = Accessor.of(valueField);
+        return ParallelReduction.invoke(collection, new MultimapReducer<T, C, A>(){
+
+            @Override
+            protected void put(final Multimap<C, A> multimap, final T element) {
+                multimap.put(keyAccessor.get(element), valueAccessor.get(element));
+            }
+
+        });
+    }
+
+    /**
+     * Like multiIndexAndConvertOrdered(), on the common fork join pool for large collections. Slices are grouped on
+     * their own and merged from left to right, so the result is the same as the sequential one.
+     */
+    public static <C, A, T> Multimap<C, A> multiIndexAndConvertOrderedParallel(final Collection<T> collection,
+        final C keyField, final A valueField) {
+        if (collection.size() < PARALLEL_THRESHOLD) {
+            return multiIndexAndConvertOrdered(collection, keyField, valueField);
+        }
+        final Accessor<T, C> keyAccessor = Accessor.of(keyField);
+        final Accessor<T, A> valueAccessor = Accessor.of(valueField);
+        Map<C, List<A>> groups = ParallelReduction.invoke(collection,
+            new ParallelReduction.Reducer<T, Map<C, List<A>>>(){
+
+                @Override
+                public Map<C, List<A>> reduce(final List<T> list, final int from, final int to) {
+                    Map<C, List<A>> map = Maps.newLinkedHashMap();
+                    for (int i = from; i < to; i++) {
+                        T element = list.get(i);
+                        C key = keyAccessor.get(element);
+                        List<A> values = map.get(key);
+                        if (values == null) {
+                            values = Lists.newArrayList();
+                            map.put(key, values);
+                        }
+                        values.add(valueAccessor.get(element));
+                    }
+                    return map;
+                }
+
+                @Override
+                public Map<C, List<A>> merge(final Map<C, List<A>> left, final Map<C, List<A>> right) {
+                    for (Map.Entry<C, List<A>> entry : right.entrySet()) {
+                        List<A> values = left.get(entry.getKey());
+                        if (values == null) {
+                            left.put(entry.getKey(), entry.getValue());
+                        } else {
+                            values.addAll(entry.getValue());
+                        }
+                    }
+                    return left;
+                }
+
+            });
+        Multimap<C, A> result = LinkedListMultimap.create();
+        for (Map.Entry<C, List<A>> entry : groups.entrySet()) {
+            result.putAll(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
     public static <C> Collection<C> selectDistinct(final Collection<C> collection, final BaseMatcher<Object> having) {
-        return Sets.newHashSet(Lambda.select(collection, having));
+        Set<C> result = Sets.newHashSet();
+        for (C element : collection) {
+            if (having.matches(element)) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Extracts the field of the matching elements in one pass, like Lambda.extract(Lambda.select(collection, having),
+     * keyField) without the intermediate list. The result keeps the order of the collection and its duplicates.
+     */
+    public static <C, A> List<C> selectAndExtract(final Collection<A> collection, final BaseMatcher<Object> having,
+        final C keyField) {
+        Accessor<A, C> keyAccessor = Accessor.of(keyField);
+        List<C> result = Lists.newArrayList();
+        for (A element : collection) {
+            if (having.matches(element)) {
+                result.add(keyAccessor.get(element));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Like selectAndExtract(), without duplicates, in the order of their first occurrence.
+     */
+    public static <C, A> Set<C> selectAndExtractDistinct(final Collection<A> collection,
+        final BaseMatcher<Object> having, final C keyField) {
+        Accessor<A, C> keyAccessor = Accessor.of(keyField);
+        Set<C> result = Sets.newLinkedHashSet();
+        for (A element : collection) {
+            if (having.matches(element)) {
+                result.add(keyAccessor.get(element));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Like selectAndExtract(), on the common fork join pool for large collections. The order is the same, so the
+     * matcher must be thread safe.
+     */
+    public static <C, A> List<C> selectAndExtractParallel(final Collection<A> collection,
+        final BaseMatcher<Object> having, final C keyField) {
+        if (collection.size() < PARALLEL_THRESHOLD) {
+            return selectAndExtract(collection, having, keyField);
+        }
+        final Accessor<A, C> keyAccessor = Accessor.of(keyField);
+        return ParallelReduction.invoke(collection, new ParallelReduction.Reducer<A, List<C>>(){
+
+            @Override
+            public List<C> reduce(final List<A> list, final int from, final int to) {
+                List<C> result = Lists.newArrayList();
+                for (int i = from; i < to; i++) {
+                    A element = list.get(i);
+                    if (having.matches(element)) {
+                        result.add(keyAccessor.get(element));
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            public List<C> merge(final List<C> left, final List<C> right) {
+                left.addAll(right);
+                return left;
+            }
+
+        });
     }
 
-    public static <C, A> Collection<C> selectAndExtract(final Collection<A> collection,
+    /**
+     * Like selectAndExtractDistinct(), on the common fork join pool for large collections. The order is the same, so
+     * the matcher must be thread safe.
+     */
+    public static <C, A> Set<C> selectAndExtractDistinctParallel(final Collection<A> collection,
         final BaseMatcher<Object> having, final C keyField) {
-        // TODO to be implemented
-        return null;
+        if (collection.size() < PARALLEL_THRESHOLD) {
+            return selectAndExtractDistinct(collection, having, keyField);
+        }
+        final Accessor<A, C> keyAccessor = Accessor.of(keyField);
+        return ParallelReduction.invoke(collection, new ParallelReduction.Reducer<A, Set<C>>(){
+
+            @Override
+            public Set<C> reduce(final List<A> list, final int from, final int to) {
+                Set<C> result = Sets.newLinkedHashSet();
+                for (int i = from; i < to; i++) {
+                    A element = list.get(i);
+                    if (having.matches(element)) {
+                        result.add(keyAccessor.get(element));
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            public Set<C> merge(final Set<C> left, final Set<C> right) {
+                left.addAll(right);
+                return left;
+            }
+
+        });
+    }
+
+    /**
+     * Groups a slice into an ArrayListMultimap and merges the slices in order.
+     */
+    private abstract static class MultimapReducer<T, C, A> implements ParallelReduction.Reducer<T, Multimap<C, A>> {
+
+        @Override
+        public Multimap<C, A> reduce(final List<T> list, final int from, final int to) {
+            Multimap<C, A> multimap = ArrayListMultimap.create();
+            for (int i = from; i < to; i++) {
+                put(multimap, list.get(i));
+            }
+            return multimap;
+        }
+
+        @Override
+        public Multimap<C, A> merge(final Multimap<C, A> left, final Multimap<C, A> right) {
+            left.putAll(right);
+            return left;
+        }
+
+        protected abstract void put(Multimap<C, A> multimap, T element);
+
     }
 
 }
@@ -1,40 +1,263 @@
 package com.dilax.mobile.model.network.util;
 
+import java.util.Arrays;
+
 import org.slf4j.Logger;
-import org.slf4j.helpers.MessageFormatter;
 
+import com.google.common.base.Supplier;
+
+/**
+ * Logs only when the level is enabled, so disabled calls cost a level check. The fixed arity methods avoid the
+ * varargs array. Arguments which are a Supplier, for example lazy(() -> expensive()), are evaluated only when the
+ * message is logged. Messages use the SLF4J {} syntax, a trailing Throwable being the exception of the event, and are
+ * formatted in a buffer reused by the thread.
+ */
 public class LoggerWrapper {
 
+    private static final int MAX_BUFFER_CAPACITY = 8192;
+
+    private static final ThreadLocal<Buffer> BUFFER = new ThreadLocal<Buffer>(){
+
+        @Override
+        protected Buffer initialValue() {
+            return new Buffer();
+        }
+
+    };
+
     private final Logger log;
 
+    private final AsyncLogSink sink;
+
     public LoggerWrapper(final Logger log) {
+        this(log, null);
+    }
+
+    /**
+     * Hands the enabled messages to the sink, which formats and writes them on its own thread. Lazy arguments are
+     * still evaluated by the caller.
+     */
+    public LoggerWrapper(final Logger log, final AsyncLogSink sink) {
         this.log = log;
+        this.sink = sink;
+    }
+
+    /**
+     * Marks a lazy argument, for example lazy(() -> route.describe()).
+     */
+    public static <T> Supplier<T> lazy(final Supplier<T> supplier) {
+        return supplier;
+    }
+
+    public void debug(final String message) {
+        if (log.isDebugEnabled()) {
+            write(Level.DEBUG, null, message, 0, null, null, null, null);
+        }
+    }
+
+    public void debug(final String message, final Object argument) {
+        if (log.isDebugEnabled()) {
+            write(Level.DEBUG, null, message, 1, argument, null, null, null);
+        }
+    }
+
+    public void debug(final String message, final Object first, final Object second) {
+        if (log.isDebugEnabled()) {
+            write(Level.DEBUG, null, message, 2, first, second, null, null);
+        }
+    }
+
+    public void debug(final String message, final Object first, final Object second, final Object third) {
+        if (log.isDebugEnabled()) {
+            write(Level.DEBUG, null, message, 3, first, second, third, null);
+        }
     }
 
     public void debug(final String message, final Object... objects) {
-        log.info(message, objects);
+        if (log.isDebugEnabled()) {
+            write(Level.DEBUG, null, message, objects.length, null, null, null, objects);
+        }
+    }
+
+    public void debug(final Supplier<String> message) {
+        if (log.isDebugEnabled()) {
+            write(Level.DEBUG, null, message.get(), 0, null, null, null, null);
+        }
+    }
+
+    public void error(final String message) {
+        if (log.isErrorEnabled()) {
+            write(Level.ERROR, null, message, 0, null, null, null, null);
+        }
+    }
+
+    public void error(final String message, final Object argument) {
+        if (log.isErrorEnabled()) {
+            write(Level.ERROR, null, message, 1, argument, null, null, null);
+        }
+    }
+
+    public void error(final String message, final Object first, final Object second) {
+        if (log.isErrorEnabled()) {
+            write(Level.ERROR, null, message, 2, first, second, null, null);
+        }
+    }
+
+    public void error(final String message, final Object first, final Object second, final Object third) {
+        if (log.isErrorEnabled()) {
+            write(Level.ERROR, null, message, 3, first, second, third, null);
+        }
     }
 
     public void error(final String message, final Object... objects) {
-        log.error(message, objects);
+        if (log.isErrorEnabled()) {
+            write(Level.ERROR, null, message, objects.length, null, null, null, objects);
+        }
+    }
+
+    public void error(final Supplier<String> message) {
+        if (log.isErrorEnabled()) {
+            write(Level.ERROR, null, message.get(), 0, null, null, null, null);
+        }
+    }
+
+    public void error(final Throwable throwable, final String message) {
+        if (log.isErrorEnabled()) {
+            write(Level.ERROR, throwable, message, 0, null, null, null, null);
+        }
+    }
+
+    public void error(final Throwable throwable, final String message, final Object argument) {
+        if (log.isErrorEnabled()) {
+            write(Level.ERROR, throwable, message, 1, argument, null, null, null);
+        }
+    }
 
+    public void error(final Throwable throwable, final String message, final Object first, final Object second) {
+        if (log.isErrorEnabled()) {
+            write(Level.ERROR, throwable, message, 2, first, second, null, null);
+        }
+    }
+
+    public void error(final Throwable throwable, final String message, final Object first, final Object second,
+        final Object third) {
+        if (log.isErrorEnabled()) {
+            write(Level.ERROR, throwable, message, 3, first, second, third, null);
+        }
     }
 
     public void error(final Throwable throwable, final String message, final Object... objects) {
-        log.error(MessageFormatter.format(message, objects).getMessage(), throwable);
+        if (log.isErrorEnabled()) {
+            write(Level.ERROR, throwable, message, objects.length, null, null, null, objects);
+        }
+    }
 
+    public void info(final String message) {
+        if (log.isInfoEnabled()) {
+            write(Level.INFO, null, message, 0, null, null, null, null);
+        }
+    }
+
+    public void info(final String message, final Object argument) {
+        if (log.isInfoEnabled()) {
+            write(Level.INFO, null, message, 1, argument, null, null, null);
+        }
+    }
+
+    public void info(final String message, final Object first, final Object second) {
+        if (log.isInfoEnabled()) {
+            write(Level.INFO, null, message, 2, first, second, null, null);
+        }
+    }
+
+    public void info(final String message, final Object first, final Object second, final Object third) {
+        if (log.isInfoEnabled()) {
+            write(Level.INFO, null, message, 3, first, second, third, null);
+        }
     }
 
     public void info(final String message, final Object... objects) {
-        log.info(message, objects);
+        if (log.isInfoEnabled()) {
+            write(Level.INFO, null, message, objects.length, null, null, null, objects);
+        }
+    }
+
+    public void info(final Supplier<String> message) {
+        if (log.isInfoEnabled()) {
+            write(Level.INFO, null, message.get(), 0, null, null, null, null);
+        }
+    }
+
+    public void trace(final String message) {
+        if (log.isTraceEnabled()) {
+            write(Level.TRACE, null, message, 0, null, null, null, null);
+        }
+    }
+
+    public void trace(final String message, final Object argument) {
+        if (log.isTraceEnabled()) {
+            write(Level.TRACE, null, message, 1, argument, null, null, null);
+        }
+    }
+
+    public void trace(final String message, final Object first, final Object second) {
+        if (log.isTraceEnabled()) {
+            write(Level.TRACE, null, message, 2, first, second, null, null);
+        }
+    }
+
+    public void trace(final String message, final Object first, final Object second, final Object third) {
+        if (log.isTraceEnabled()) {
+            write(Level.TRACE, null, message, 3, first, second, third, null);
+        }
     }
 
     public void trace(final String message, final Object... objects) {
-        log.info(message, objects);
+        if (log.isTraceEnabled()) {
+            write(Level.TRACE, null, message, objects.length, null, null, null, objects);
+        }
+    }
+
+    public void trace(final Supplier<String> message) {
+        if (log.isTraceEnabled()) {
+            write(Level.TRACE, null, message.get(), 0, null, null, null, null);
+        }
+    }
+
+    public void warn(final String message) {
+        if (log.isWarnEnabled()) {
+            write(Level.WARN, null, message, 0, null, null, null, null);
+        }
+    }
+
+    public void warn(final String message, final Object argument) {
+        if (log.isWarnEnabled()) {
+            write(Level.WARN, null, message, 1, argument, null, null, null);
+        }
+    }
+
+    public void warn(final String message, final Object first, final Object second) {
+        if (log.isWarnEnabled()) {
+            write(Level.WARN, null, message, 2, first, second, null, null);
+        }
+    }
+
+    public void warn(final String message, final Object first, final Object second, final Object third) {
+        if (log.isWarnEnabled()) {
+            write(Level.WARN, null, message, 3, first, second, third, null);
+        }
     }
 
     public void warn(final String message, final Object... objects) {
-        log.warn(message, objects);
+        if (log.isWarnEnabled()) {
+            write(Level.WARN, null, message, objects.length, null, null, null, objects);
+        }
+    }
+
+    public void warn(final Supplier<String> message) {
+        if (log.isWarnEnabled()) {
+            write(Level.WARN, null, message.get(), 0, null, null, null, null);
+        }
     }
 
     public boolean isDebugEnabled() {
@@ -57,4 +280,196 @@ public class LoggerWrapper {
         return log.isWarnEnabled();
     }
 
-}
\ No newline at end of file
+    /**
+     * Takes the arguments either as first, second and third or, if not null, as the objects array.
+     */
+    private void write(final Level level, final Throwable throwable, final String message, final int count,
+        final Object first, final Object second, final Object third, final Object[] objects) {
+        Object firstArgument = resolve(first);
+        Object secondArgument = resolve(second);
+        Object thirdArgument = resolve(third);
+        Object[] arguments = objects;
+        if (objects != null) {
+            for (int i = 0; i < objects.length; i++) {
+                if (objects[i] instanceof Supplier) {
+                    if (arguments == objects) {
+                        arguments = objects.clone();
+                    }
+                    arguments[i] = resolve(objects[i]);
+                }
+            }
+        }
+        if (sink != null && sink.enqueue(log, level, throwable, message, count, firstArgument, secondArgument,
+            thirdArgument, arguments)) {
+            return;
+        }
+        if (count == 0) {
+            level.log(log, message, throwable);
+            return;
+        }
+        Buffer buffer = BUFFER.get();
+        // A nested call from a toString() cannot share the buffer in use.
+        StringBuilder builder = buffer.isInUse ? new StringBuilder() : buffer.builder;
+        buffer.isInUse = true;
+        try {
+            print(log, level, builder, throwable, message, count, firstArgument, secondArgument, thirdArgument,
+                arguments);
+        } finally {
+            if (builder == buffer.builder) {
+                buffer.release();
+            }
+        }
+    }
+
+    /**
+     * Formats the message in the builder and writes it. Suppliers must be already resolved. As in the SLF4J
+     * MessageFormatter.arrayFormat(), a trailing Throwable is the exception of the event and not a placeholder
+     * argument.
+     */
+    static void print(final Logger log, final Level level, final StringBuilder builder, final Throwable throwable,
+        final String message, final int count, final Object first, final Object second, final Object third,
+        final Object[] objects) {
+        Throwable cause = throwable;
+        int formatted = count;
+        if (cause == null && count > 0) {
+            Object last = argument(count - 1, first, second, third, objects);
+            if (last instanceof Throwable) {
+                cause = (Throwable) last;
+                formatted--;
+            }
+        }
+        format(builder, message, formatted, first, second, third, objects);
+        level.log(log, builder.toString(), cause);
+    }
+
+    /**
+     * Appends the message replacing the {} placeholders with the resolved arguments, like the SLF4J
+     * MessageFormatter.
+     */
+    static void format(final StringBuilder builder, final String message, final int count, final Object first,
+        final Object second, final Object third, final Object[] objects) {
+        if (message == null) {
+            builder.append((String) null);
+            return;
+        }
+        int start = 0;
+        int used = 0;
+        while (used < count) {
+            int index = message.indexOf("{}", start);
+            if (index < 0) {
+                break;
+            }
+            if (index > 0 && message.charAt(index - 1) == '\\') {
+                if (index > 1 && message.charAt(index - 2) == '\\') {
+                    builder.append(message, start, index - 1);
+                    appendArgument(builder, argument(used++, first, second, third, objects));
+                    start = index + 2;
+                } else {
+                    builder.append(message, start, index - 1).append('{');
+                    start = index + 1;
+                }
+            } else {
+                builder.append(message, start, index);
+                appendArgument(builder, argument(used++, first, second, third, objects));
+                start = index + 2;
+            }
+        }
+        builder.append(message, start, message.length());
+    }
+
+    private static Object argument(final int index, final Object first, final Object second, final Object third,
+        final Object[] objects) {
+        if (objects != null) {
+            return objects[index];
+        }
+        switch (index) {
+            case 0:
+                return first;
+            case 1:
+                return second;
+            default:
+                return third;
+        }
+    }
+
+    private static Object resolve(final Object argument) {
+        if (argument instanceof Supplier) {
+            return ((Supplier<?>) argument).get();
+        }
+        return argument;
+    }
+
+    private static void appendArgument(final StringBuilder builder, final Object argument) {
+        try {
+            if (argument instanceof Object[]) {
+                builder.append(Arrays.deepToString((Object[]) argument));
+            } else if (argument != null && argument.getClass().isArray()) {
+                String array = Arrays.deepToString(new Object[ ] { argument });
+                builder.append(array, 1, array.length() - 1);
+            } else {
+                builder.append(argument);
+            }
+        } catch (RuntimeException e) {
+            builder.append("[FAILED toString()]");
+        }
+    }
+
+    private static class Buffer {
+
+        private StringBuilder builder = new StringBuilder(256);
+
+        private boolean isInUse;
+
+        private void release() {
+            if (builder.capacity() > MAX_BUFFER_CAPACITY) {
+                builder = new StringBuilder(256);
+            } else {
+                builder.setLength(0);
+            }
+            isInUse = false;
+        }
+
+    }
+
+    enum Level {
+        TRACE {
+
+            @Override
+            void log(final Logger log, final String message, final Throwable throwable) {
+                log.trace(message, throwable);
+            }
+        },
+        DEBUG {
+
+            @Override
+            void log(final Logger log, final String message, final Throwable throwable) {
+                log.debug(message, throwable);
+            }
+        },
+        INFO {
+
+            @Override
+            void log(final Logger log, final String message, final Throwable throwable) {
+                log.info(message, throwable);
+            }
+        },
+        WARN {
+
+            @Override
+            void log(final Logger log, final String message, final Throwable throwable) {
+                log.warn(message, throwable);
+            }
+        },
+        ERROR {
+
+            @Override
+            void log(final Logger log, final String message, final Throwable throwable) {
+                log.error(message, throwable);
+            }
+        };
+
+        abstract void log(Logger log, String message, Throwable throwable);
+
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.dilax.mobile.model.network.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+
+/**
+ * Multimap from long keys, like ids from external systems, to values. Keys are kept in an open addressing table with
+ * linear probing and are listed in order of first insertion.
+ * @see AbstractPrimitiveMultimap
+ */
+public class LongObjectMultimap<V> extends AbstractPrimitiveMultimap<V> {
+
+    private long[] keys;
+
+    /** Group of the key in the same slot plus one, zero for an empty slot. */
+    private int[] slots;
+
+    /** Key of every group. */
+    private long[] groupKeys;
+
+    protected LongObjectMultimap(final int expectedKeys, final int expectedValues) {
+        super(expectedKeys, expectedValues);
+        int capacity = Integer.highestOneBit(Math.max(4, expectedKeys * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.slots = new int[capacity];
+        this.groupKeys = new long[expectedKeys];
+    }
+
+    public static <V> LongObjectMultimap<V> create() {
+        return new LongObjectMultimap<V>(0, 0);
+    }
+
+    public static <V> LongObjectMultimap<V> create(final int expectedKeys, final int expectedValues) {
+        return new LongObjectMultimap<V>(expectedKeys, expectedValues);
+    }
+
+    public void put(final long key, final V value) {
+        int slot = findSlot(key);
+        int group = slots[slot] - 1;
+        if (group < 0) {
+            group = addGroup();
+            if (group == groupKeys.length) {
+                groupKeys = Arrays.copyOf(groupKeys, Math.max(4, group * 2));
+            }
+            groupKeys[group] = key;
+            keys[slot] = key;
+            slots[slot] = group + 1;
+            if (keyCount() * 2 > slots.length) {
+                rehash(slots.length * 2);
+            }
+        }
+        addToGroup(group, value);
+    }
+
+    /**
+     * An unmodifiable view of the values of the key in insertion order, empty if there are none.
+     */
+    public List<V> get(final long key) {
+        return getGroup(slots[findSlot(key)] - 1);
+    }
+
+    public boolean containsKey(final long key) {
+        return slots[findSlot(key)] != 0;
+    }
+
+    /**
+     * The number of values of the key.
+     */
+    public int count(final long key) {
+        return getGroupSize(slots[findSlot(key)] - 1);
+    }
+
+    /**
+     * The distinct keys, in order of first insertion.
+     */
+    public long[] keys() {
+        return Arrays.copyOf(groupKeys, keyCount());
+    }
+
+    /**
+     * A Guava multimap with the same entries, for callers that need one.
+     */
+    public ListMultimap<Long, V> toMultimap() {
+        ListMultimap<Long, V> multimap = ArrayListMultimap.create(keyCount(), 1);
+        for (int group = 0; group < keyCount(); group++) {
+            multimap.putAll(groupKeys[group], getGroup(group));
+        }
+        return multimap;
+    }
+
+    /**
+     * The slot of the key, or the empty slot where it would go.
+     */
+    private int findSlot(final long key) {
+        int mask = slots.length - 1;
+        int slot = hash(key) & mask;
+        while (slots[slot] != 0 && keys[slot] != key) {
+            slot = slot + 1 & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(final int capacity) {
+        keys = new long[capacity];
+        slots = new int[capacity];
+        for (int group = 0; group < keyCount(); group++) {
+            int slot = findSlot(groupKeys[group]);
+            keys[slot] = groupKeys[group];
+            slots[slot] = group + 1;
+        }
+    }
+
+    private static int hash(final long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32);
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.dilax.mobile.model.network.util;
+
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.apache.commons.lang.builder.ToStringStyle;
+
+/**
+ * Pair of unboxed longs, for example a period as epoch days or epoch millis.
+ */
+public class LongPair implements Comparable<LongPair> {
+
+    private final long first;
+
+    private final long second;
+
+    protected LongPair(final long first, final long second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    public static LongPair of(final long first, final long second) {
+        return new LongPair(first, second);
+    }
+
+    /**
+     * @throws NullPointerException if an element of the pair is null
+     */
+    public static LongPair from(final Pair<Long, Long> pair) {
+        return new LongPair(pair.getFirst(), pair.getSecond());
+    }
+
+    public long getFirst() {
+        return first;
+    }
+
+    public long getSecond() {
+        return second;
+    }
+
+    public Pair<Long, Long> toPair() {
+        return Pair.of(first, second);
+    }
+
+    @Override
+    public int compareTo(final LongPair other) {
+        if (first != other.first) {
+            return first < other.first ? -1 : 1;
+        }
+        if (second != other.second) {
+            return second < other.second ? -1 : 1;
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append(first).append(second).toString();
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof LongPair) {
+            LongPair pair = (LongPair) object;
+            return first == pair.first && second == pair.second;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (int) (first ^ first >>> 32) + (int) (second ^ second >>> 32);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.dilax.mobile.model.network.util;
+
+/**
+ * List of long pairs backed by two long arrays, returned as LongPair without boxing. getFirst() and getSecond() read an
+ * element without creating a pair.
+ * @see AbstractPairList
+ */
+public class LongPairList extends AbstractPairList<LongPair> {
+
+    protected LongPairList(final int capacity) {
+        super(long.class, long.class, capacity);
+    }
+
+    public static LongPairList create() {
+        return new LongPairList(0);
+    }
+
+    public static LongPairList create(final int capacity) {
+        return new LongPairList(capacity);
+    }
+
+    public void add(final long first, final long second) {
+        int index = reserve(size);
+        ((long[]) firsts)[index] = first;
+        ((long[]) seconds)[index] = second;
+    }
+
+    public long getFirst(final int index) {
+        return ((long[]) firsts)[checkIndex(index)];
+    }
+
+    public long getSecond(final int index) {
+        return ((long[]) seconds)[checkIndex(index)];
+    }
+
+    @Override
+    public LongPair get(final int index) {
+        return LongPair.of(getFirst(index), getSecond(index));
+    }
+
+    @Override
+    public LongPair set(final int index, final LongPair pair) {
+        LongPair previous = get(index);
+        ((long[]) firsts)[index] = pair.getFirst();
+        ((long[]) seconds)[index] = pair.getSecond();
+        return previous;
+    }
+
+    @Override
+    public void add(final int index, final LongPair pair) {
+        int reserved = reserve(index);
+        ((long[]) firsts)[reserved] = pair.getFirst();
+        ((long[]) seconds)[reserved] = pair.getSecond();
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.dilax.mobile.model.network.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+import com.google.common.base.Function;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+
+/**
+ * Memoizes LambdaUtils.getAllValues() on a map or multimap that is looked up again and again with the same keys. The
+ * values of every key list are computed once, copied into an unmodifiable list and kept until they are evicted, the
+ * least recently used first, or invalidated.
+ * <p>
+ * The source is not watched. Either give the cache a modification stamp of the source, like a counter the owner
+ * increments after every change, which is compared at every lookup and drops every cached result when it moved, or
+ * call invalidate() with the changed keys or invalidateAll() after changing the source. Otherwise the results computed
+ * before the change are returned.
+ */
+public class LookupCache<C, A> {
+
+    private final LoadingCache<List<C>, List<A>> cache;
+
+    /** Null if the source has no stamp. */
+    private final LongSupplier modificationStamp;
+
+    private volatile long lastStamp;
+
+    private LookupCache(final Function<Collection<C>, Collection<A>> lookup, final LongSupplier modificationStamp,
+        final long maximumSize) {
+        this.modificationStamp = modificationStamp;
+        this.lastStamp = modificationStamp == null ? 0 : modificationStamp.getAsLong();
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats()
+            .build(new CacheLoader<List<C>, List<A>>(){
+
+                @Override
+                public List<A> load(final List<C> keys) {
+                    return Collections.unmodifiableList(Lists.newArrayList(lookup.apply(keys)));
+                }
+
+            });
+    }
+
+    /**
+     * @param maximumSize the number of key lists whose values are kept
+     */
+    public static <C, A> LookupCache<C, A> of(final Map<C, A> map, final long maximumSize) {
+        return of(map, null, maximumSize);
+    }
+
+    /**
+     * @param modificationStamp changes whenever the map changes
+     * @param maximumSize the number of key lists whose values are kept
+     */
+    public static <C, A> LookupCache<C, A> of(final Map<C, A> map, final LongSupplier modificationStamp,
+        final long maximumSize) {
+        return new LookupCache<C, A>(new Function<Collection<C>, Collection<A>>(){
+
+            @Override
+            public Collection<A> apply(final Collection<C> keys) {
+                return LambdaUtils.getAllValues(map, keys);
+            }
+
+        }, modificationStamp, maximumSize);
+    }
+
+    /**
+     * @param maximumSize the number of key lists whose values are kept
+     */
+    public static <C, A> LookupCache<C, A> of(final Multimap<C, A> multimap, final long maximumSize) {
+        return of(multimap, null, maximumSize);
+    }
+
+    /**
+     * @param modificationStamp changes whenever the multimap changes
+     * @param maximumSize the number of key lists whose values are kept
+     */
+    public static <C, A> LookupCache<C, A> of(final Multimap<C, A> multimap, final LongSupplier modificationStamp,
+        final long maximumSize) {
+        return new LookupCache<C, A>(new Function<Collection<C>, Collection<A>>(){
+
+            @Override
+            public Collection<A> apply(final Collection<C> keys) {
+                return LambdaUtils.getAllValues(multimap, keys);
+            }
+
+        }, modificationStamp, maximumSize);
+    }
+
+    /**
+     * Indexes the collection with LambdaUtils.indexAndConvert() and caches the lookups of the index, which is not
+     * exposed and so cannot change.
+     */
+    public static <C, A, T> LookupCache<C, A> ofIndex(final Collection<T> collection, final C keyField,
+        final A valueField, final long maximumSize) {
+        return of(LambdaUtils.indexAndConvert(collection, keyField, valueField), maximumSize);
+    }
+
+    /**
+     * Like LambdaUtils.getAllValues(), materialized and unmodifiable. Keys are compared as lists, so the same keys in
+     * another order are another entry.
+     */
+    public List<A> getAllValues(final Collection<C> keys) {
+        if (modificationStamp != null) {
+            long stamp = modificationStamp.getAsLong();
+            if (stamp != lastStamp) {
+                cache.invalidateAll();
+                lastStamp = stamp;
+            }
+        }
+        return cache.getUnchecked(Collections.unmodifiableList(Lists.newArrayList(keys)));
+    }
+
+    /**
+     * The values of the single key.
+     */
+    public List<A> get(final C key) {
+        return getAllValues(Collections.singletonList(key));
+    }
+
+    /**
+     * Drops every cached result, to be called after the source changed.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Drops the cached result of every key list containing one of the keys, to be called after the values of the keys
+     * changed. Scans the cached key lists.
+     */
+    public void invalidate(final Collection<C> keys) {
+        Set<C> changedKeys = Sets.newHashSet(keys);
+        for (List<C> cachedKeys : cache.asMap().keySet()) {
+            if (!Collections.disjoint(cachedKeys, changedKeys)) {
+                cache.invalidate(cachedKeys);
+            }
+        }
+    }
+
+    /**
+     * Hits, misses, load times and evictions since the creation of the cache.
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * The number of cached key lists.
+     */
+    public long size() {
+        return cache.size();
+    }
+
+}
@@ -7,12 +7,19 @@ import org.joda.time.LocalDate;
 import org.joda.time.base.AbstractInstant;
 import org.joda.time.base.AbstractPartial;
 
+/**
+ * Matchers of LocalDate, LocalTime, LocalDateTime and instants are compiled to a {@link TimePredicate}, which can also
+ * be combined with and() and or(). Elements of another type than the bound do not match.
+ */
 public class Matchers {
 
     /**
      * It can be used with LocalDate or LocalTime, for example.
      */
     public static Matcher<AbstractPartial> isAfter(final AbstractPartial partial) {
+        if (TimePredicate.isSupported(partial)) {
+            return TimePredicate.isAfter(partial);
+        }
         return new BaseMatcher<AbstractPartial>(){
 
             @Override
@@ -34,55 +41,30 @@ public class Matchers {
      * It can be used with DateTime, for example.
      */
     public static Matcher<AbstractInstant> isAfter(final AbstractInstant instant) {
-        return new BaseMatcher<AbstractInstant>(){
-
-            @Override
-            public void describeTo(final Description description) {
-                description.appendText("after instant: ").appendValue(instant);
-            }
-
-            @Override
-            public boolean matches(final Object object) {
-                if (object instanceof AbstractInstant) {
-                    return ((AbstractInstant) object).isAfter(instant);
-                }
-                return false;
-            }
-        };
+        return TimePredicate.isAfter(instant);
     }
 
     /**
      * It can be used with DateTime, for example.
      */
     public static Matcher<AbstractInstant> isBefore(final AbstractInstant instant) {
-        return new BaseMatcher<AbstractInstant>(){
-
-            @Override
-            public void describeTo(final Description description) {
-                description.appendText("before instant: ").appendValue(instant);
-            }
-
-            @Override
-            public boolean matches(final Object object) {
-                if (object instanceof AbstractInstant) {
-                    return ((AbstractInstant) object).isBefore(instant);
-                }
-                return false;
-            }
-        };
+        return TimePredicate.isBefore(instant);
     }
 
     /**
      * It can be used with LocalDate, for example.
      */
     public static Matcher<AbstractPartial> isAfterOrEquals(final LocalDate date) {
-        return isAfter(date.minusDays(1));
+        return TimePredicate.isAfterOrEquals(date);
     }
 
     /**
      * It can be used with LocalDate or LocalTime, for example.
      */
     public static Matcher<AbstractPartial> isBefore(final AbstractPartial partial) {
+        if (TimePredicate.isSupported(partial)) {
+            return TimePredicate.isBefore(partial);
+        }
         return new BaseMatcher<AbstractPartial>(){
 
             @Override
@@ -105,6 +87,6 @@ public class Matchers {
      * It can be used with LocalDate, for example.
      */
     public static Matcher<AbstractPartial> isBeforeOrEquals(final LocalDate date) {
-        return isBefore(date.plusDays(1));
+        return TimePredicate.isBeforeOrEquals(date);
     }
 }
@@ -0,0 +1,85 @@
+package com.dilax.mobile.model.network.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Neighbors of the elements of an ordered sequence, like the stops of a route, answered in O(1) by a hash of the
+ * positions instead of a scan per lookup. Lookups follow Utils.getElementAfter() and getElementBefore(): the element
+ * after is the one after the first occurrence, the element before is the one before the last occurrence. A list with
+ * random access is used as it is, without a copy, so it must not change while the index is used; other iterables are
+ * copied.
+ */
+public class NeighborIndex<C> {
+
+    private final List<C> elements;
+
+    private final Map<C, Integer> firstPositions;
+
+    /** Last positions of the elements occurring more than once. */
+    private final Map<C, Integer> lastPositions;
+
+    private NeighborIndex(final List<C> elements) {
+        this.elements = elements;
+        this.firstPositions = Maps.newHashMapWithExpectedSize(elements.size());
+        this.lastPositions = Maps.newHashMap();
+        for (int i = 0; i < elements.size(); i++) {
+            C element = elements.get(i);
+            if (element == null) {
+                continue;
+            }
+            Integer previous = firstPositions.put(element, i);
+            if (previous != null) {
+                firstPositions.put(element, previous);
+                lastPositions.put(element, i);
+            }
+        }
+    }
+
+    public static <C> NeighborIndex<C> create(final Iterable<C> iterable) {
+        if (iterable instanceof List && iterable instanceof RandomAccess) {
+            return new NeighborIndex<C>((List<C>) iterable);
+        }
+        return new NeighborIndex<C>(Lists.newArrayList(iterable));
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    public boolean contains(final C element) {
+        return firstPositions.containsKey(element);
+    }
+
+    /**
+     * @return null if the element is the last one
+     * @throws IllegalArgumentException if the sequence does not contain the element
+     */
+    public C getElementAfter(final C element) {
+        int position = getFirstPosition(element);
+        return position + 1 < elements.size() ? elements.get(position + 1) : null;
+    }
+
+    /**
+     * @return null if the element is the first one
+     * @throws IllegalArgumentException if the sequence does not contain the element
+     */
+    public C getElementBefore(final C element) {
+        Integer lastPosition = lastPositions.get(element);
+        int position = lastPosition != null ? lastPosition : getFirstPosition(element);
+        return position > 0 ? elements.get(position - 1) : null;
+    }
+
+    private int getFirstPosition(final C element) {
+        Integer position = element == null ? null : firstPositions.get(element);
+        if (position == null) {
+            throw new IllegalArgumentException("Iterable does not contain element.");
+        }
+        return position;
+    }
+
+}
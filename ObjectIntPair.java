@@ -0,0 +1,85 @@
+package com.dilax.mobile.model.network.util;
+
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.apache.commons.lang.builder.ToStringStyle;
+
+/**
+ * Pair of an object and an unboxed int, for example an element and its frequency. Ordered by the first element,
+ * with null first, and then by the second.
+ */
+public class ObjectIntPair<A> implements Comparable<ObjectIntPair<A>> {
+
+    private final A first;
+
+    private final int second;
+
+    protected ObjectIntPair(final A first, final int second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    public static <A> ObjectIntPair<A> of(final A first, final int second) {
+        return new ObjectIntPair<A>(first, second);
+    }
+
+    /**
+     * @throws NullPointerException if the second element of the pair is null
+     */
+    public static <A> ObjectIntPair<A> from(final Pair<A, Integer> pair) {
+        return new ObjectIntPair<A>(pair.getFirst(), pair.getSecond());
+    }
+
+    public A getFirst() {
+        return first;
+    }
+
+    public int getSecond() {
+        return second;
+    }
+
+    public Pair<A, Integer> toPair() {
+        return Pair.of(first, second);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int compareTo(final ObjectIntPair<A> other) {
+        if (first != other.first) {
+            if (first == null) {
+                return -1;
+            }
+            if (other.first == null) {
+                return 1;
+            }
+            int comparison = ((Comparable<A>) first).compareTo(other.first);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        if (second != other.second) {
+            return second < other.second ? -1 : 1;
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append(first).append(second).toString();
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof ObjectIntPair) {
+            @SuppressWarnings("rawtypes")
+            ObjectIntPair pair = (ObjectIntPair) object;
+            return second == pair.second && (first == null ? pair.first == null : first.equals(pair.first));
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (first == null ? 0 : first.hashCode()) + second;
+    }
+
+}
@@ -1,17 +1,24 @@
 package com.dilax.mobile.model.network.util;
 
-import org.apache.commons.lang.builder.CompareToBuilder;
-import org.apache.commons.lang.builder.EqualsBuilder;
-import org.apache.commons.lang.builder.HashCodeBuilder;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Comparator;
+
 import org.apache.commons.lang.builder.ToStringBuilder;
 import org.apache.commons.lang.builder.ToStringStyle;
 
+/**
+ * Equality, hash code and ordering are computed inline, arrays included, as the commons-lang builders did. The hash
+ * code is computed once, so elements should not change while the pair is used as a key.
+ */
 public class Pair<A, B> implements Comparable<Pair<A, B>> {
 
     private final A first;
 
     private final B second;
 
+    private int hashCode;
+
     protected Pair(final A first, final B second) {
         this.first = first;
         this.second = second;
@@ -21,9 +28,32 @@ public class Pair<A, B> implements Comparable<Pair<A, B>> {
         return new Pair<A, B>(first, second);
     }
 
+    /**
+     * Orders by the first and then by the second element, with null elements first.
+     */
+    public static <A, B> Comparator<Pair<A, B>> comparator(final Comparator<? super A> firstComparator,
+        final Comparator<? super B> secondComparator) {
+        return new Comparator<Pair<A, B>>(){
+
+            @Override
+            public int compare(final Pair<A, B> pair, final Pair<A, B> other) {
+                int comparison = compareNullsFirst(pair.first, other.first, firstComparator);
+                if (comparison != 0) {
+                    return comparison;
+                }
+                return compareNullsFirst(pair.second, other.second, secondComparator);
+            }
+
+        };
+    }
+
     @Override
     public int compareTo(final Pair<A, B> other) {
-        return new CompareToBuilder().append(first, other.first).append(second, other.second).toComparison();
+        int comparison = compareNullsFirst(first, other.first);
+        if (comparison != 0) {
+            return comparison;
+        }
+        return compareNullsFirst(second, other.second);
     }
 
     public A getFirst() {
@@ -41,17 +71,103 @@ public class Pair<A, B> implements Comparable<Pair<A, B>> {
 
     @Override
     public boolean equals(final Object object) {
+        if (object == this) {
+            return true;
+        }
         if (object instanceof Pair) {
             @SuppressWarnings("rawtypes")
             Pair pair = (Pair) object;
-            return new EqualsBuilder().append(first, pair.first).append(second, pair.second).isEquals();
+            return equal(first, pair.first) && equal(second, pair.second);
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder().append(first).append(second).toHashCode();
+        int result = hashCode;
+        if (result == 0) {
+            result = (17 * 37 + hash(first)) * 37 + hash(second);
+            hashCode = result;
+        }
+        return result;
+    }
+
+    private static boolean equal(final Object object, final Object other) {
+        if (object == other) {
+            return true;
+        }
+        if (object == null || other == null) {
+            return false;
+        }
+        if (object.getClass().isArray()) {
+            return Arrays.deepEquals(new Object[ ] { object }, new Object[ ] { other });
+        }
+        return object.equals(other);
+    }
+
+    private static int hash(final Object object) {
+        if (object == null) {
+            return 0;
+        }
+        if (object.getClass().isArray()) {
+            return Arrays.deepHashCode(new Object[ ] { object });
+        }
+        return object.hashCode();
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compareNullsFirst(final Object object, final Object other) {
+        if (object == other) {
+            return 0;
+        }
+        if (object == null) {
+            return -1;
+        }
+        if (other == null) {
+            return 1;
+        }
+        if (object.getClass().isArray()) {
+            return compareArrays(object, other);
+        }
+        return ((Comparable) object).compareTo(other);
+    }
+
+    /**
+     * Like CompareToBuilder: the shorter array first, then element by element, nested arrays included.
+     * @throws ClassCastException if the other element is not an array of the same kind
+     */
+    private static int compareArrays(final Object array, final Object other) {
+        Class<?> type = array.getClass().getComponentType();
+        Class<?> otherType = other.getClass().isArray() ? other.getClass().getComponentType() : null;
+        if (otherType == null || (type.isPrimitive() || otherType.isPrimitive()) && type != otherType) {
+            throw new ClassCastException(Utils.format("Cannot compare {} with {}", array.getClass().getName(), other
+                .getClass().getName()));
+        }
+        int length = Array.getLength(array);
+        int otherLength = Array.getLength(other);
+        if (length != otherLength) {
+            return length < otherLength ? -1 : 1;
+        }
+        for (int i = 0; i < length; i++) {
+            int comparison = compareNullsFirst(Array.get(array, i), Array.get(other, i));
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+
+    private static <C> int compareNullsFirst(final C object, final C other, final Comparator<? super C> comparator) {
+        if (object == other) {
+            return 0;
+        }
+        if (object == null) {
+            return -1;
+        }
+        if (other == null) {
+            return 1;
+        }
+        return comparator.compare(object, other);
     }
 
 }
@@ -0,0 +1,68 @@
+package com.dilax.mobile.model.network.util;
+
+/**
+ * List of pairs backed by two parallel arrays.
+ * @see AbstractPairList
+ */
+public class PairList<A, B> extends AbstractPairList<Pair<A, B>> {
+
+    protected PairList(final int capacity) {
+        super(Object.class, Object.class, capacity);
+    }
+
+    public static <A, B> PairList<A, B> create() {
+        return new PairList<A, B>(0);
+    }
+
+    public static <A, B> PairList<A, B> create(final int capacity) {
+        return new PairList<A, B>(capacity);
+    }
+
+    /**
+     * Wraps the arrays, which must have the same length, without copying them.
+     */
+    static <A, B> PairList<A, B> wrap(final Object[] firsts, final Object[] seconds) {
+        PairList<A, B> pairs = new PairList<A, B>(0);
+        pairs.firsts = firsts;
+        pairs.seconds = seconds;
+        pairs.size = firsts.length;
+        return pairs;
+    }
+
+    public void add(final A first, final B second) {
+        int index = reserve(size);
+        ((Object[]) firsts)[index] = first;
+        ((Object[]) seconds)[index] = second;
+    }
+
+    @SuppressWarnings("unchecked")
+    public A getFirst(final int index) {
+        return (A) ((Object[]) firsts)[checkIndex(index)];
+    }
+
+    @SuppressWarnings("unchecked")
+    public B getSecond(final int index) {
+        return (B) ((Object[]) seconds)[checkIndex(index)];
+    }
+
+    @Override
+    public Pair<A, B> get(final int index) {
+        return Pair.of(getFirst(index), getSecond(index));
+    }
+
+    @Override
+    public Pair<A, B> set(final int index, final Pair<A, B> pair) {
+        Pair<A, B> previous = get(index);
+        ((Object[]) firsts)[index] = pair.getFirst();
+        ((Object[]) seconds)[index] = pair.getSecond();
+        return previous;
+    }
+
+    @Override
+    public void add(final int index, final Pair<A, B> pair) {
+        int reserved = reserve(index);
+        ((Object[]) firsts)[reserved] = pair.getFirst();
+        ((Object[]) seconds)[reserved] = pair.getSecond();
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.dilax.mobile.model.network.util;
+
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Fork join reduction of a list on the common pool. The list is halved down to slices of a few thousand elements,
+ * every slice is reduced to a partial result on its own thread and the partial results are merged pairwise, always
+ * the left one with the right one, so the merged result follows the order of the list whatever the scheduling.
+ */
+class ParallelReduction<E, R> extends RecursiveTask<R> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MIN_SLICE_SIZE = 1024;
+
+    /** Slices per thread, so that a slow thread can be helped by the others. */
+    private static final int SLICES_PER_THREAD = 4;
+
+    interface Reducer<E, R> {
+
+        /**
+         * The partial result of the elements between from, inclusive, and to, exclusive.
+         */
+        R reduce(List<E> list, int from, int to);
+
+        /**
+         * Merges the partial result of the following elements into the one of the preceding elements.
+         */
+        R merge(R left, R right);
+
+    }
+
+    private final List<E> list;
+
+    private final Reducer<E, R> reducer;
+
+    private final int from;
+
+    private final int to;
+
+    private final int sliceSize;
+
+    private ParallelReduction(final List<E> list, final Reducer<E, R> reducer, final int from, final int to,
+        final int sliceSize) {
+        this.list = list;
+        this.reducer = reducer;
+        this.from = from;
+        this.to = to;
+        this.sliceSize = sliceSize;
+    }
+
+    /**
+     * Reduces the collection on the common pool, copying it first if it is not a random access list.
+     */
+    static <E, R> R invoke(final Iterable<E> iterable, final Reducer<E, R> reducer) {
+        List<E> list = iterable instanceof List && iterable instanceof RandomAccess ? (List<E>) iterable : Lists
+            .newArrayList(iterable);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int sliceSize = Math.max(MIN_SLICE_SIZE, list.size() / (pool.getParallelism() * SLICES_PER_THREAD) + 1);
+        return pool.invoke(new ParallelReduction<E, R>(list, reducer, 0, list.size(), sliceSize));
+    }
+
+    @Override
+    protected R compute() {
+        if (to - from <= sliceSize) {
+            return reducer.reduce(list, from, to);
+        }
+        int middle = (from + to) >>> 1;
+        ParallelReduction<E, R> left = new ParallelReduction<E, R>(list, reducer, from, middle, sliceSize);
+        left.fork();
+        R right = new ParallelReduction<E, R>(list, reducer, middle, to, sliceSize).compute();
+        return reducer.merge(left.join(), right);
+    }
+
+}
@@ -0,0 +1,447 @@
+package com.dilax.mobile.model.network.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.Collectors;
+
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.LocalTime;
+import org.joda.time.base.AbstractInstant;
+import org.joda.time.base.AbstractPartial;
+
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
+
+/**
+ * Time comparison compiled to ranges of a primitive key: epoch days for LocalDate, millis of day for LocalTime, local
+ * millis for LocalDateTime and epoch millis for instants. Chains of and() and or() are merged into sorted disjoint
+ * ranges, so a chain costs a single key extraction and usually a single range check. Elements of another type do not
+ * match. As a hamcrest matcher it can replace {@link Matchers} in lambdaj selects, but select() filters a collection
+ * without going through lambdaj, and selectSorted() finds the matches of a sorted list by binary search.
+ */
+public class TimePredicate<T> extends BaseMatcher<T> implements Predicate<T> {
+
+    enum Kind {
+        DATE(LocalDate.class) {
+
+            @Override
+            long key(final Object object) {
+                return Utils.toEpochDay((LocalDate) object);
+            }
+        },
+        TIME(LocalTime.class) {
+
+            @Override
+            long key(final Object object) {
+                return ((LocalTime) object).getMillisOfDay();
+            }
+        },
+        DATE_TIME(LocalDateTime.class) {
+
+            @Override
+            long key(final Object object) {
+                LocalDateTime dateTime = (LocalDateTime) object;
+                int epochDay = Utils.toEpochDay(dateTime.getYear(), dateTime.getMonthOfYear(),
+                    dateTime.getDayOfMonth());
+                return (long) epochDay * DateTimeConstants.MILLIS_PER_DAY + dateTime.getMillisOfDay();
+            }
+        },
+        INSTANT(AbstractInstant.class) {
+
+            @Override
+            long key(final Object object) {
+                return ((AbstractInstant) object).getMillis();
+            }
+
+            @Override
+            boolean accepts(final Object object) {
+                return object instanceof AbstractInstant;
+            }
+        };
+
+        private final Class<?> type;
+
+        private Kind(final Class<?> type) {
+            this.type = type;
+        }
+
+        abstract long key(Object object);
+
+        boolean accepts(final Object object) {
+            return object != null && object.getClass() == type;
+        }
+
+        /**
+         * @return null if the type is not supported
+         */
+        static Kind of(final Object object) {
+            for (Kind kind : values()) {
+                if (kind.accepts(object)) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Kind kind;
+
+    /** Inclusive bounds of sorted disjoint ranges: start, end, start, end... */
+    private final long[] bounds;
+
+    private final String description;
+
+    private TimePredicate(final Kind kind, final long[] bounds, final String description) {
+        this.kind = kind;
+        this.bounds = bounds;
+        this.description = description;
+    }
+
+    /**
+     * Whether the bound is a LocalDate, LocalTime, LocalDateTime or an instant.
+     */
+    public static boolean isSupported(final Object bound) {
+        return Kind.of(bound) != null;
+    }
+
+    public static TimePredicate<AbstractPartial> isAfter(final AbstractPartial partial) {
+        long key = key(partial);
+        return create(Kind.of(partial), key == Long.MAX_VALUE ? new long[0] : new long[] { key + 1, Long.MAX_VALUE },
+            describe("after partial", partial));
+    }
+
+    public static TimePredicate<AbstractPartial> isBefore(final AbstractPartial partial) {
+        long key = key(partial);
+        return create(Kind.of(partial), key == Long.MIN_VALUE ? new long[0] : new long[] { Long.MIN_VALUE, key - 1 },
+            describe("before partial", partial));
+    }
+
+    public static TimePredicate<AbstractPartial> isAfterOrEquals(final AbstractPartial partial) {
+        return create(Kind.of(partial), new long[] { key(partial), Long.MAX_VALUE },
+            describe("after or equal to partial", partial));
+    }
+
+    public static TimePredicate<AbstractPartial> isBeforeOrEquals(final AbstractPartial partial) {
+        return create(Kind.of(partial), new long[] { Long.MIN_VALUE, key(partial) },
+            describe("before or equal to partial", partial));
+    }
+
+    /**
+     * Both bounds included.
+     */
+    public static TimePredicate<AbstractPartial> isBetween(final AbstractPartial from, final AbstractPartial to) {
+        return isAfterOrEquals(from).and(isBeforeOrEquals(to));
+    }
+
+    public static TimePredicate<AbstractInstant> isAfter(final AbstractInstant instant) {
+        long key = key(instant);
+        return create(Kind.INSTANT, key == Long.MAX_VALUE ? new long[0] : new long[] { key + 1, Long.MAX_VALUE },
+            describe("after instant", instant));
+    }
+
+    public static TimePredicate<AbstractInstant> isBefore(final AbstractInstant instant) {
+        long key = key(instant);
+        return create(Kind.INSTANT, key == Long.MIN_VALUE ? new long[0] : new long[] { Long.MIN_VALUE, key - 1 },
+            describe("before instant", instant));
+    }
+
+    /**
+     * Both bounds included.
+     */
+    public static TimePredicate<AbstractInstant> isBetween(final AbstractInstant from, final AbstractInstant to) {
+        TimePredicate<AbstractInstant> after = create(Kind.INSTANT, new long[] { key(from), Long.MAX_VALUE },
+            describe("after or equal to instant", from));
+        return after.and(create(Kind.INSTANT, new long[] { Long.MIN_VALUE, key(to) },
+            describe("before or equal to instant", to)));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the predicates compare different types
+     */
+    public TimePredicate<T> and(final TimePredicate<T> other) {
+        checkKind(other);
+        List<Long> result = Lists.newArrayList();
+        int i = 0;
+        int j = 0;
+        while (i < bounds.length && j < other.bounds.length) {
+            long start = Math.max(bounds[i], other.bounds[j]);
+            long end = Math.min(bounds[i + 1], other.bounds[j + 1]);
+            if (start <= end) {
+                result.add(start);
+                result.add(end);
+            }
+            if (bounds[i + 1] < other.bounds[j + 1]) {
+                i += 2;
+            } else {
+                j += 2;
+            }
+        }
+        return create(kind, toArray(result), description + " and " + other.description);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the predicates compare different types
+     */
+    public TimePredicate<T> or(final TimePredicate<T> other) {
+        checkKind(other);
+        long[] all = new long[bounds.length + other.bounds.length];
+        System.arraycopy(bounds, 0, all, 0, bounds.length);
+        System.arraycopy(other.bounds, 0, all, bounds.length, other.bounds.length);
+        // Sorts the ranges by start, then merges the overlapping or adjacent ones.
+        long[][] ranges = new long[all.length / 2][];
+        for (int i = 0; i < ranges.length; i++) {
+            ranges[i] = new long[] { all[2 * i], all[2 * i + 1] };
+        }
+        Arrays.sort(ranges, new Comparator<long[]>(){
+
+            @Override
+            public int compare(final long[] first, final long[] second) {
+                return first[0] < second[0] ? -1 : first[0] == second[0] ? 0 : 1;
+            }
+
+        });
+        List<Long> result = Lists.newArrayList();
+        for (long[] range : ranges) {
+            int last = result.size() - 1;
+            if (last >= 0 && (result.get(last) == Long.MAX_VALUE || range[0] <= result.get(last) + 1)) {
+                result.set(last, Math.max(result.get(last), range[1]));
+            } else {
+                result.add(range[0]);
+                result.add(range[1]);
+            }
+        }
+        return create(kind, toArray(result), description + " or " + other.description);
+    }
+
+    @Override
+    public boolean matches(final Object object) {
+        return kind.accepts(object) && matchesKey(kind.key(object));
+    }
+
+    @Override
+    public boolean apply(final T object) {
+        return matches(object);
+    }
+
+    /**
+     * Whether the key, in the unit of the compared type, is in one of the ranges.
+     */
+    public boolean matchesKey(final long key) {
+        if (bounds.length == 2) {
+            return key >= bounds[0] && key <= bounds[1];
+        }
+        for (int i = 0; i < bounds.length && key >= bounds[i]; i += 2) {
+            if (key <= bounds[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void describeTo(final Description description) {
+        description.appendText(this.description);
+    }
+
+    /**
+     * The matching elements, in the order of the collection.
+     */
+    public <E extends T> List<E> select(final Collection<E> collection) {
+        List<E> result = Lists.newArrayList();
+        for (E element : collection) {
+            if (matches(element)) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The elements whose field matches, in the order of the collection.
+     * @param field a lambdaj argument like on(Departure.class).getTime()
+     */
+    public <C> List<C> select(final Collection<C> collection, final T field) {
+        return select(collection, field, false);
+    }
+
+    /**
+     * Like select(), optionally filtering in parallel on the common fork join pool. The order is kept.
+     */
+    public <C> List<C> select(final Collection<C> collection, final T field, final boolean isParallel) {
+        final Accessor<C, T> accessor = Accessor.of(field);
+        if (isParallel) {
+            return collection.parallelStream().filter(new java.util.function.Predicate<C>(){
+
+                @Override
+                public boolean test(final C element) {
+                    return matches(accessor.get(element));
+                }
+
+            }).collect(Collectors.<C> toList());
+        }
+        List<C> result = Lists.newArrayList();
+        for (C element : collection) {
+            if (matches(accessor.get(element))) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The matching elements of a list sorted in ascending order, found by binary search. For a single range, like
+     * isAfter() or isBetween(), the result is a subList view of the input; for several ranges it is a new list of the
+     * matching runs.
+     * @throws IllegalArgumentException if an element at a probed position is not of the compared type
+     */
+    public <E extends T> List<E> selectSorted(final List<E> sorted) {
+        return selectSorted(sorted, Functions.<E> identity());
+    }
+
+    /**
+     * Like selectSorted() on the elements, for a list sorted by the field. Costs O(log n) field reads per range.
+     * @param field a lambdaj argument like on(Departure.class).getTime()
+     */
+    public <C> List<C> selectSorted(final List<C> sorted, final T field) {
+        return selectSorted(sorted, Accessor.<C, T> of(field));
+    }
+
+    /**
+     * Whether the elements are all of the same supported type and in ascending order, so that the list can be given to
+     * selectSorted(). Costs a scan, so check once and keep the answer for repeated selects.
+     */
+    public static boolean isSorted(final List<?> list) {
+        return isSorted(list, Functions.identity());
+    }
+
+    /**
+     * Like isSorted() on the elements, for the field of every element.
+     */
+    public static <C, T> boolean isSorted(final List<C> list, final T field) {
+        return isSorted(list, Accessor.<C, T> of(field));
+    }
+
+    private static <C> boolean isSorted(final List<C> list, final Function<? super C, ?> function) {
+        Kind kind = null;
+        long previous = Long.MIN_VALUE;
+        for (C element : list) {
+            Object value = function.apply(element);
+            if (kind == null) {
+                kind = Kind.of(value);
+            }
+            if (kind == null || !kind.accepts(value)) {
+                return false;
+            }
+            long key = kind.key(value);
+            if (key < previous) {
+                return false;
+            }
+            previous = key;
+        }
+        return true;
+    }
+
+    private <C> List<C> selectSorted(final List<C> sorted, final Function<? super C, ?> function) {
+        if (!(sorted instanceof RandomAccess)) {
+            return selectSorted(Lists.newArrayList(sorted), function);
+        }
+        if (bounds.length == 2) {
+            return sorted.subList(lowerBound(sorted, function, bounds[0]), upperBound(sorted, function, bounds[1]));
+        }
+        List<C> result = Lists.newArrayList();
+        for (int i = 0; i < bounds.length; i += 2) {
+            result.addAll(sorted.subList(lowerBound(sorted, function, bounds[i]),
+                upperBound(sorted, function, bounds[i + 1])));
+        }
+        return result;
+    }
+
+    /**
+     * The position of the first element whose key is not less than the given one.
+     */
+    private <C> int lowerBound(final List<C> sorted, final Function<? super C, ?> function, final long key) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedKey(function.apply(sorted.get(middle))) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The position of the first element whose key is greater than the given one.
+     */
+    private <C> int upperBound(final List<C> sorted, final Function<? super C, ?> function, final long key) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedKey(function.apply(sorted.get(middle))) <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long sortedKey(final Object object) {
+        if (!kind.accepts(object)) {
+            throw new IllegalArgumentException(Utils.format("Expected {} but found: {}", kind, object));
+        }
+        return kind.key(object);
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    long[] getBounds() {
+        return bounds;
+    }
+
+    private static <T> TimePredicate<T> create(final Kind kind, final long[] bounds, final String description) {
+        return new TimePredicate<T>(kind, bounds, description);
+    }
+
+    private static String describe(final String text, final Object bound) {
+        return text + ": <" + bound + ">";
+    }
+
+    private static long key(final Object bound) {
+        Kind kind = Kind.of(bound);
+        if (kind == null) {
+            throw new IllegalArgumentException(Utils.format("Unsupported type: {}", bound));
+        }
+        return kind.key(bound);
+    }
+
+    private void checkKind(final TimePredicate<T> other) {
+        if (kind != other.kind) {
+            throw new IllegalArgumentException(Utils.format("Cannot combine {} with {}", kind, other.kind));
+        }
+    }
+
+    private static long[] toArray(final List<Long> list) {
+        long[] array = new long[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.dilax.mobile.model.network.util;
+
+/**
+ * List of twin pairs backed by two parallel arrays.
+ * @see AbstractPairList
+ */
+public class TwinPairList<C> extends AbstractPairList<TwinPair<C>> {
+
+    protected TwinPairList(final int capacity) {
+        super(Object.class, Object.class, capacity);
+    }
+
+    public static <C> TwinPairList<C> create() {
+        return new TwinPairList<C>(0);
+    }
+
+    public static <C> TwinPairList<C> create(final int capacity) {
+        return new TwinPairList<C>(capacity);
+    }
+
+    public void add(final C first, final C second) {
+        int index = reserve(size);
+        ((Object[]) firsts)[index] = first;
+        ((Object[]) seconds)[index] = second;
+    }
+
+    @SuppressWarnings("unchecked")
+    public C getFirst(final int index) {
+        return (C) ((Object[]) firsts)[checkIndex(index)];
+    }
+
+    @SuppressWarnings("unchecked")
+    public C getSecond(final int index) {
+        return (C) ((Object[]) seconds)[checkIndex(index)];
+    }
+
+    @Override
+    public TwinPair<C> get(final int index) {
+        return TwinPair.from(getFirst(index), getSecond(index));
+    }
+
+    @Override
+    public TwinPair<C> set(final int index, final TwinPair<C> pair) {
+        TwinPair<C> previous = get(index);
+        ((Object[]) firsts)[index] = pair.getFirst();
+        ((Object[]) seconds)[index] = pair.getSecond();
+        return previous;
+    }
+
+    @Override
+    public void add(final int index, final TwinPair<C> pair) {
+        int reserved = reserve(index);
+        ((Object[]) firsts)[reserved] = pair.getFirst();
+        ((Object[]) seconds)[reserved] = pair.getSecond();
+    }
+
+}
@@ -1,19 +1,20 @@
 package com.dilax.mobile.model.network.util;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
 
 import org.joda.time.DateTime;
-import org.joda.time.Interval;
 import org.joda.time.LocalDate;
 import org.joda.time.LocalTime;
 import org.joda.time.Seconds;
-import org.joda.time.format.DateTimeFormat;
-import org.joda.time.format.DateTimeFormatter;
 import org.slf4j.helpers.MessageFormatter;
 
 import com.dilax.mobile.enumeration.WeekDay;
-import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 
@@ -21,9 +22,7 @@ import com.google.common.collect.Lists;
 
 public class Utils {
 
-    private static String DATE_FORMAT = "ddMMYY";
-
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormat.forPattern(DATE_FORMAT);
+    private static final String HASH_SEPARATOR = "_H";
 
     public static String format(final String message, final Object... objects) {
         return MessageFormatter.arrayFormat(message, objects).getMessage();
@@ -49,21 +48,54 @@ public class Utils {
         return string.substring(0, Math.min(newLength, string.length()));
     }
 
+    /**
+     * Like crop(), as a slice sharing the characters of the sequence.
+     */
+    public static CharSlice cropSequence(final CharSequence sequence, final int newLength) {
+        return CharSlice.of(sequence, 0, Math.min(newLength, sequence.length()));
+    }
+
     /**
      * The first and the second period must not be ordered. If they have at least one day in common, true is returned. 
      * @return
      */
     public static boolean doTimePeriodsOverlap(final LocalDate firstStartDate, final LocalDate firstEndDate,
         final LocalDate secondStartDate, final LocalDate secondEndDate) {
-        return doTimePeriodsOverlap(firstStartDate.toDateTimeAtStartOfDay(), firstEndDate.toDateTimeAtStartOfDay(),
-            secondStartDate.toDateTimeAtStartOfDay(), secondEndDate.toDateTimeAtStartOfDay());
+        return doEpochDayPeriodsOverlap(toEpochDay(firstStartDate), toEpochDay(firstEndDate),
+            toEpochDay(secondStartDate), toEpochDay(secondEndDate));
     }
 
     public static boolean doTimePeriodsOverlap(final DateTime firstStartDate, final DateTime firstEndDate,
         final DateTime secondStartDate, final DateTime secondEndDate) {
-        Interval firstInterval = new Interval(firstStartDate.minusMillis(1), firstEndDate.plusMillis(1));
-        Interval secondInterval = new Interval(secondStartDate.minusMillis(1), secondEndDate.plusMillis(1));
-        return firstInterval.overlaps(secondInterval);
+        return doEpochMillisPeriodsOverlap(firstStartDate.getMillis(), firstEndDate.getMillis(),
+            secondStartDate.getMillis(), secondEndDate.getMillis());
+    }
+
+    /**
+     * Like doTimePeriodsOverlap() on dates, with days counted from the epoch.
+     * @throws IllegalArgumentException if a period ends before its start
+     */
+    public static boolean doEpochDayPeriodsOverlap(final int firstStartDay, final int firstEndDay,
+        final int secondStartDay, final int secondEndDay) {
+        if (firstEndDay < firstStartDay || secondEndDay < secondStartDay) {
+            throw new IllegalArgumentException(format("A period ends before its start: {}, {}, {}, {}",
+                firstStartDay, firstEndDay, secondStartDay, secondEndDay));
+        }
+        return firstStartDay <= secondEndDay && secondStartDay <= firstEndDay;
+    }
+
+    /**
+     * Like doTimePeriodsOverlap() on date times, with millis from the epoch. As there, periods whose bounds are one
+     * milli apart overlap.
+     * @throws IllegalArgumentException if a period ends before its start
+     */
+    public static boolean doEpochMillisPeriodsOverlap(final long firstStartMillis, final long firstEndMillis,
+        final long secondStartMillis, final long secondEndMillis) {
+        if (firstEndMillis + 1 < firstStartMillis - 1 || secondEndMillis + 1 < secondStartMillis - 1) {
+            throw new IllegalArgumentException(format("A period ends before its start: {}, {}, {}, {}",
+                firstStartMillis, firstEndMillis, secondStartMillis, secondEndMillis));
+        }
+        return firstStartMillis - 1 < secondEndMillis + 1 && secondStartMillis - 1 < firstEndMillis + 1;
     }
 
     public static boolean isDayInTimePeriod(final DateTime day, final Pair<DateTime, DateTime> timePeriod) {
@@ -71,8 +103,15 @@ public class Utils {
     }
 
     public static boolean isDayInTimePeriod(final LocalDate localDate, final TwinPair<LocalDate> timePeriod) {
-        return isDayInTimePeriod(localDate.toDateTimeAtStartOfDay(),
-            Pair.of(timePeriod.getFirst().toDateTimeAtStartOfDay(), timePeriod.getSecond().toDateTimeAtStartOfDay()));
+        return isDayInEpochDayPeriod(toEpochDay(localDate), toEpochDay(timePeriod.getFirst()),
+            toEpochDay(timePeriod.getSecond()));
+    }
+
+    /**
+     * Like isDayInTimePeriod() on dates, with days counted from the epoch and inclusive bounds.
+     */
+    public static boolean isDayInEpochDayPeriod(final int day, final int startDay, final int endDay) {
+        return startDay <= day && day <= endDay;
     }
 
     public static WeekDay getWeekDayFromJodaIndex(final int i) {
@@ -104,20 +143,61 @@ public class Utils {
         if (dates.isEmpty()) {
             throw new IllegalArgumentException("No dates found.");
         }
-        LocalDate previousDate = Iterables.get(dates, 0);
+        return DateRunCodec.encode(dates);
+    }
+
+    /**
+     * Like generateCodeFromDates() on a collection, reading the days straight from the bits of the set.
+     */
+    public static String generateCodeFromDates(final DateSet dates) {
+        if (dates.isEmpty()) {
+            throw new IllegalArgumentException("No dates found.");
+        }
         StringBuilder codeBuilder = new StringBuilder();
-        codeBuilder.append(previousDate.toString(DATE_FORMATTER));
-        for (LocalDate date : Iterables.skip(dates, 1)) {
-            if (!date.minusDays(1).equals(previousDate)) {
-                appendPreviousDate(codeBuilder, previousDate);
-                codeBuilder.append("_").append(date.toString(DATE_FORMATTER));
-            }
-            previousDate = date;
+        try {
+            DateRunCodec.encodeEpochDays(dates.epochDayIterator(), codeBuilder);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
         }
+        return codeBuilder.toString();
+    }
+
+    /**
+     * Days since 1970-01-01 of an ISO date, computed from its fields without allocating.
+     */
+    public static int toEpochDay(final LocalDate date) {
+        return toEpochDay(date.getYear(), date.getMonthOfYear(), date.getDayOfMonth());
+    }
 
-        appendPreviousDate(codeBuilder, previousDate);
+    static int toEpochDay(final int isoYear, final int month, final int day) {
+        // Years start in March, so that the leap day is the last day of the year.
+        int year = isoYear - (month <= 2 ? 1 : 0);
+        int era = (year >= 0 ? year : year - 399) / 400;
+        int yearOfEra = year - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
 
-        return codeBuilder.toString();
+    public static LocalDate fromEpochDay(final int epochDay) {
+        int packedDate = toPackedDate(epochDay);
+        return new LocalDate(packedDate >> 9, packedDate >> 5 & 0xF, packedDate & 0x1F);
+    }
+
+    /**
+     * The ISO date of the epoch day, as year << 9 | month << 5 | day.
+     */
+    static int toPackedDate(final int epochDay) {
+        int days = epochDay + 719468;
+        int era = (days >= 0 ? days : days - 146096) / 146097;
+        int dayOfEra = days - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | day;
     }
 
     public static int getSecondsBetween(final LocalTime from, final LocalTime to) {
@@ -139,26 +219,95 @@ public class Utils {
     }
 
     public static String hashAndCrop(final String string, final int maxLength) {
+        return hashAndCrop(string, maxLength, IdentifierHash.JAVA);
+    }
+
+    /**
+     * Crops strings longer than the maximum length and appends _H and their hash.
+     */
+    public static String hashAndCrop(final String string, final int maxLength, final IdentifierHash hash) {
         if (string.length() > maxLength) {
-            return Joiner.on("_H").join(string.substring(0, maxLength - 10), string.hashCode());
+            return hashAndCrop(string, maxLength, hash, new StringBuilder(maxLength + 1)).toString();
         }
         return string;
     }
 
-    private static void appendPreviousDate(final StringBuilder codeBuilder, final LocalDate previousDate) {
-        if (!getSubString(codeBuilder.toString(), -1 * DATE_FORMAT.length()).equals(
-            previousDate.toString(DATE_FORMATTER))) {
-            codeBuilder.append("-").append(previousDate.toString(DATE_FORMATTER));
+    /**
+     * Like hashAndCrop(), appending the result to the builder, so that a reused builder allocates nothing.
+     * @return the builder
+     * @throws IllegalArgumentException if the maximum length cannot hold the separator and the hash
+     */
+    public static StringBuilder hashAndCrop(final CharSequence sequence, final int maxLength,
+        final IdentifierHash hash, final StringBuilder builder) {
+        if (sequence.length() <= maxLength) {
+            return builder.append(sequence);
+        }
+        int cropLength = hash.getCropLength(maxLength);
+        if (cropLength < 0) {
+            if (hash == IdentifierHash.JAVA) {
+                throw new StringIndexOutOfBoundsException(cropLength);
+            }
+            throw new IllegalArgumentException(format("Maximum length {} too short for {}", maxLength, hash));
+        }
+        builder.append(sequence, 0, cropLength).append(HASH_SEPARATOR);
+        hash.appendHash(sequence, builder);
+        return builder;
+    }
+
+    /**
+     * Like hashAndCrop() on every string, through one builder.
+     */
+    public static List<String> hashAndCrop(final Collection<String> strings, final int maxLength,
+        final IdentifierHash hash) {
+        List<String> result = Lists.newArrayListWithCapacity(strings.size());
+        StringBuilder builder = new StringBuilder(maxLength + 1);
+        for (String string : strings) {
+            if (string.length() > maxLength) {
+                builder.setLength(0);
+                result.add(hashAndCrop(string, maxLength, hash, builder).toString());
+            } else {
+                result.add(string);
+            }
         }
+        return result;
     }
 
+    /**
+     * Random access lists get a getSubList() view, which does not skip from the head at every iteration.
+     */
     public static <T> Iterable<T> getSubIterable(final Collection<T> collection, final int startIndex,
         final int endIndex) {
-
+        if (collection instanceof List && collection instanceof RandomAccess) {
+            return getSubList((List<T>) collection, startIndex, endIndex);
+        }
         return Iterables.skip(Iterables.limit(collection, endIndex <= 0 ? collection.size() + endIndex : endIndex),
             startIndex);
     }
 
+    /**
+     * Like getSubIterable(), as a subList() view of the list. A non-positive end index counts from the end.
+     * @throws IllegalArgumentException if the start index or the resulting end index is negative
+     */
+    public static <T> List<T> getSubList(final List<T> list, final int startIndex, final int endIndex) {
+        int limit = endIndex <= 0 ? list.size() + endIndex : endIndex;
+        Preconditions.checkArgument(limit >= 0, "limit is negative");
+        Preconditions.checkArgument(startIndex >= 0, "number to skip cannot be negative");
+        int end = Math.min(limit, list.size());
+        return list.subList(Math.min(startIndex, end), end);
+    }
+
+    /**
+     * Like getSubString(), as a slice sharing the characters of the sequence.
+     */
+    public static CharSlice getSubSequence(final CharSequence sequence, final int startIndex) {
+        int length = sequence.length();
+        if (startIndex >= 0) {
+            return CharSlice.of(sequence, Math.min(length, startIndex), length);
+        } else {
+            return CharSlice.of(sequence, Math.max(0, length + startIndex), length);
+        }
+    }
+
     public static String getSubString(final String string, final int startIndex) {
         if (startIndex >= 0) {
             return string.substring(Math.min(string.length(), startIndex));
@@ -167,6 +316,9 @@ public class Utils {
         }
     }
 
+    /**
+     * For repeated lookups in the same sequence, see {@link NeighborIndex}.
+     */
     public static <C> C getElementAfter(final C element, final Iterable<C> iterable) {
         Iterator<C> iterator = iterable.iterator();
         while (iterator.hasNext()) {
@@ -181,8 +333,25 @@ public class Utils {
         throw new IllegalArgumentException("Iterable does not contain element.");
     }
 
+    /**
+     * Scans lists backwards in place; other iterables are copied first. For repeated lookups in the same sequence, see
+     * {@link NeighborIndex}.
+     */
     public static <C> C getElementBefore(final C element, final Iterable<C> iterable) {
-        return getElementAfter(element, Lists.reverse(Lists.newArrayList(iterable)));
+        if (!(iterable instanceof List)) {
+            return getElementAfter(element, Lists.reverse(Lists.newArrayList(iterable)));
+        }
+        ListIterator<C> iterator = ((List<C>) iterable).listIterator(((List<C>) iterable).size());
+        while (iterator.hasPrevious()) {
+            if (iterator.previous().equals(element)) {
+                if (iterator.hasPrevious()) {
+                    return iterator.previous();
+                } else {
+                    return null;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Iterable does not contain element.");
     }
 
 }
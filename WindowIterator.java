@@ -0,0 +1,250 @@
+package com.dilax.mobile.model.network.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams windows of consecutive elements. With size 3 and step 1 the list [a, b, c, d] gives [a, b, c] and
+ * [b, c, d], with step 2 just [a, b, c]. A padded iterator also gives the trailing windows, filled with null, so
+ * the windows start at every step-th element: [a, b, c], [b, c, d], [c, d, null] and [d, null, null].
+ * <p>
+ * The elements are read lazily and kept in a ring buffer of at most twice the window size, so the source is never
+ * copied. A window reusing the view is the same list at every iteration, backed by the buffer and valid until the
+ * following call to next(): it allocates nothing per step, but it must be copied to be kept.
+ */
+public class WindowIterator<C> implements Iterator<List<C>> {
+
+    private final Iterator<C> iterator;
+
+    private final int size;
+
+    private final int step;
+
+    private final boolean isPadded;
+
+    private final Window view;
+
+    private final Object[] buffer;
+
+    private long loaded;
+
+    private long nextStart;
+
+    private int nextOffset;
+
+    private int nextFilled;
+
+    private boolean isPrepared;
+
+    private boolean hasNextWindow;
+
+    private int offset;
+
+    private int filled;
+
+    private WindowIterator(final Iterator<C> iterator, final int size, final int step, final boolean isPadded,
+        final boolean isReusingView) {
+        if (iterator == null) {
+            throw new IllegalArgumentException("Iterator cannot be null.");
+        }
+        if (size < 1 || step < 1) {
+            throw new IllegalArgumentException(Utils.format("Size and step must be positive: {}, {}", size, step));
+        }
+        this.iterator = iterator;
+        this.size = size;
+        this.step = step;
+        this.isPadded = isPadded;
+        // The next window is read while the current one is still visible, so they must not share any slot.
+        this.buffer = new Object[size + Math.min(step, size)];
+        this.view = isReusingView ? new Window() : null;
+    }
+
+    public static <C> WindowIterator<C> create(final Iterator<C> iterator, final int size, final int step,
+        final boolean isPadded, final boolean isReusingView) {
+        return new WindowIterator<C>(iterator, size, step, isPadded, isReusingView);
+    }
+
+    public static <C> WindowIterator<C> create(final Iterable<C> iterable, final int size, final int step,
+        final boolean isPadded, final boolean isReusingView) {
+        return create(iterable.iterator(), size, step, isPadded, isReusingView);
+    }
+
+    public static <C> WindowIterator<C> create(final Iterable<C> iterable, final int size) {
+        return create(iterable.iterator(), size, 1, false, false);
+    }
+
+    /**
+     * Windows of size two as TwinPair, with a single allocation per step.
+     * @see CollectionUtils#getWindowIterator(Collection)
+     */
+    public static <C> Iterator<TwinPair<C>> pairs(final Iterator<C> iterator, final boolean isPadded) {
+        final WindowIterator<C> windowIterator = create(iterator, 2, 1, isPadded, true);
+        return new Iterator<TwinPair<C>>(){
+
+            @Override
+            public boolean hasNext() {
+                return windowIterator.hasNext();
+            }
+
+            @Override
+            public TwinPair<C> next() {
+                List<C> window = windowIterator.next();
+                return TwinPair.from(window.get(0), window.get(1));
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+        };
+    }
+
+    /**
+     * The spliterator is sized when the iterable is a collection. Reused views cannot be buffered, so it splits
+     * only when copying the windows.
+     */
+    public static <C> Spliterator<List<C>> spliterator(final Iterable<C> iterable, final int size, final int step,
+        final boolean isPadded, final boolean isReusingView) {
+        final WindowIterator<C> windowIterator = create(iterable, size, step, isPadded, isReusingView);
+        int characteristics = Spliterator.ORDERED | Spliterator.NONNULL;
+        final Spliterator<List<C>> spliterator;
+        if (iterable instanceof Collection) {
+            long count = windowIterator.countWindows(((Collection<C>) iterable).size());
+            spliterator = Spliterators.spliterator(windowIterator, count, characteristics);
+        } else {
+            spliterator = Spliterators.spliteratorUnknownSize(windowIterator, characteristics);
+        }
+        if (!isReusingView) {
+            return spliterator;
+        }
+        return new Spliterator<List<C>>(){
+
+            @Override
+            public boolean tryAdvance(final Consumer<? super List<C>> action) {
+                return spliterator.tryAdvance(action);
+            }
+
+            @Override
+            public void forEachRemaining(final Consumer<? super List<C>> action) {
+                spliterator.forEachRemaining(action);
+            }
+
+            @Override
+            public Spliterator<List<C>> trySplit() {
+                return null;
+            }
+
+            @Override
+            public long estimateSize() {
+                return spliterator.estimateSize();
+            }
+
+            @Override
+            public int characteristics() {
+                return spliterator.characteristics() & ~Spliterator.SUBSIZED;
+            }
+
+        };
+    }
+
+    public static <C> Stream<List<C>> stream(final Iterable<C> iterable, final int size, final int step,
+        final boolean isPadded, final boolean isReusingView) {
+        return StreamSupport.stream(spliterator(iterable, size, step, isPadded, isReusingView), false);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!isPrepared) {
+            prepare();
+        }
+        return hasNextWindow;
+    }
+
+    @Override
+    public List<C> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        isPrepared = false;
+        offset = nextOffset;
+        filled = nextFilled;
+        nextStart += step;
+        nextOffset = (offset + Math.min(step, size)) % buffer.length;
+        if (view != null) {
+            return view;
+        }
+        Object[] copy = new Object[size];
+        for (int i = 0; i < filled; i++) {
+            copy[i] = buffer[(offset + i) % buffer.length];
+        }
+        @SuppressWarnings("unchecked")
+        List<C> window = (List<C>) Collections.unmodifiableList(Arrays.asList(copy));
+        return window;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Reads the next window into the slots not used by the current one, skipping the elements between windows.
+     */
+    private void prepare() {
+        while (loaded < nextStart + size && iterator.hasNext()) {
+            C element = iterator.next();
+            if (loaded >= nextStart) {
+                buffer[(int) ((nextOffset + loaded - nextStart) % buffer.length)] = element;
+            }
+            loaded++;
+        }
+        nextFilled = (int) Math.max(0, Math.min(loaded - nextStart, size));
+        for (int i = nextFilled; i < size; i++) {
+            buffer[(nextOffset + i) % buffer.length] = null;
+        }
+        hasNextWindow = nextFilled == size || isPadded && nextFilled > 0;
+        isPrepared = true;
+    }
+
+    private long countWindows(final long elements) {
+        if (isPadded) {
+            return elements > 0 ? (elements - 1) / step + 1 : 0;
+        }
+        return elements >= size ? (elements - size) / step + 1 : 0;
+    }
+
+    private class Window extends AbstractList<C> implements RandomAccess {
+
+        @Override
+        public C get(final int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(Utils.format("Index {} out of window of size {}", index, size));
+            }
+            if (index >= filled) {
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            C element = (C) buffer[(offset + index) % buffer.length];
+            return element;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+}
@@ -0,0 +1,25 @@
+#!/bin/bash
+# Runs the benchmarks against a baseline revision of network-model and against the working tree, writing
+# baseline.json and current.json. The baseline defaults to the first commit; the other arguments go to JMH:
+#   benchmarks/compare.sh [revision] [jmh options]
+set -e
+root=$(git -C "$(dirname "$0")" rev-parse --show-toplevel)
+baseline=${1:-$(git -C "$root" rev-list --max-parents=0 HEAD)}
+shift || true
+work=$(mktemp -d)
+trap 'rm -rf "$work"' EXIT
+
+# The baseline may predate the standalone build, which is taken from the working tree.
+git -C "$root" archive "$baseline" | tar -x -C "$work"
+cp "$root/pom.xml" "$work/pom.xml"
+rm -rf "$work/build" && cp -r "$root/build" "$work/build"
+sed -i '0,/<version>1.0-SNAPSHOT<\/version>/s//<version>baseline-SNAPSHOT<\/version>/' "$work/pom.xml"
+mvn -B -q -f "$work/pom.xml" install
+mvn -B -q -f "$root/pom.xml" install
+
+mvn -B -q -f "$root/benchmarks/pom.xml" clean package -Pbaseline -Dnetwork-model.version=baseline-SNAPSHOT
+cp "$root/benchmarks/target/benchmarks-baseline.jar" "$work"
+mvn -B -q -f "$root/benchmarks/pom.xml" clean package
+
+java -jar "$work/benchmarks-baseline.jar" -rff baseline.json "$@"
+java -jar "$root/benchmarks/target/benchmarks.jar" -rff current.json "$@"
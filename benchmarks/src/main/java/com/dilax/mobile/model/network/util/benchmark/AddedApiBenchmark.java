@@ -0,0 +1,119 @@
+package com.dilax.mobile.model.network.util.benchmark;
+
+import static ch.lambdaj.Lambda.on;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.helpers.NOPLogger;
+
+import com.dilax.mobile.model.network.util.CollectionUtils;
+import com.dilax.mobile.model.network.util.IntObjectMultimap;
+import com.dilax.mobile.model.network.util.LambdaUtils;
+import com.dilax.mobile.model.network.util.LoggerWrapper;
+import com.dilax.mobile.model.network.util.PairList;
+import com.google.common.base.Supplier;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+
+/**
+ * Methods that the baseline does not have, to be compared with the baseline methods they replace in the other
+ * benchmarks. The baseline profile leaves this class out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g", "-XX:+IgnoreUnrecognizedVMOptions",
+    "--add-opens=java.base/java.lang=ALL-UNNAMED" })
+public class AddedApiBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    private int size;
+
+    private List<Integer> elements;
+
+    private List<Departure> departures;
+
+    private LoggerWrapper log;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        elements = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            elements.add(random.nextInt(Math.max(1, size / 10)));
+        }
+        departures = Departure.create(size, 42);
+        log = new LoggerWrapper(NOPLogger.NOP_LOGGER);
+    }
+
+    @Benchmark
+    public Multimap<Integer, Integer> getMostFrequentElementsTop10() {
+        return CollectionUtils.getMostFrequentElements(elements, 10);
+    }
+
+    @Benchmark
+    public Multimap<Integer, Departure> multiIndexParallel() {
+        return LambdaUtils.multiIndexParallel(departures, on(Departure.class).getRouteId());
+    }
+
+    @Benchmark
+    public IntObjectMultimap<Departure> multiIndexByInt() {
+        return LambdaUtils.multiIndexByInt(departures, on(Departure.class).getStopId());
+    }
+
+    @Benchmark
+    public Multimap<Integer, LocalTime> multiIndexAndConvertParallel() {
+        return LambdaUtils.multiIndexAndConvertParallel(departures, on(Departure.class).getRouteId(),
+            on(Departure.class).getTime());
+    }
+
+    @Benchmark
+    public Multimap<Integer, LocalTime> multiIndexAndConvertOrderedParallel() {
+        return LambdaUtils.multiIndexAndConvertOrderedParallel(departures, on(Departure.class).getRouteId(),
+            on(Departure.class).getTime());
+    }
+
+    @Benchmark
+    public Set<String> extractDistinctParallel() {
+        return LambdaUtils.extractDistinctParallel(departures, on(Departure.class).getVehicle());
+    }
+
+    @Benchmark
+    public PairList<Integer, LocalTime> extractPairsParallel() {
+        return LambdaUtils.extractPairsParallel(departures, on(Departure.class).getRouteId(),
+            on(Departure.class).getTime());
+    }
+
+    @Benchmark
+    public void debugSupplier() {
+        for (int i = 0; i < size; i++) {
+            final Integer value = elements.get(i);
+            log.debug(new Supplier<String>(){
+
+                @Override
+                public String get() {
+                    return "Value " + value;
+                }
+
+            });
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.dilax.mobile.model.network.util.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler and writes the results as JSON, to compare a new build of network-model
+ * with the previous one. After installing network-model with the pom.xml of the parent directory:
+ * <pre>
+ * mvn package
+ * java -jar target/benchmarks.jar [jmh options] [-rff results.json]
+ * </pre>
+ * compare.sh builds a baseline revision and the working tree and runs both, the baseline with the benchmarks built by
+ * the baseline profile, which leaves out the methods that the baseline does not have.
+ * The usual JMH options apply, for example a benchmark regex or -p size=1000 to run a single size. The results go to
+ * jmh-result.json unless -rff says otherwise.
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        if (commandLineOptions.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+        }
+        Options options = builder.parent(commandLineOptions).addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(commandLineOptions.getResult().orElse(DEFAULT_RESULT_FILE)).build();
+        new Runner(options).run();
+    }
+
+}
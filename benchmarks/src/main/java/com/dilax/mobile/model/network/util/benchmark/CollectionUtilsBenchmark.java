@@ -0,0 +1,86 @@
+package com.dilax.mobile.model.network.util.benchmark;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.dilax.mobile.model.network.util.CollectionUtils;
+import com.google.common.collect.Lists;
+
+/**
+ * The frequency methods, quadratic in the baseline, are in QuadraticBaselineBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+public class CollectionUtilsBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    private int size;
+
+    private List<Integer> elements;
+
+    private List<String> others;
+
+    private List<List<Integer>> nested;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        elements = Lists.newArrayListWithCapacity(size);
+        others = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            elements.add(random.nextInt(Math.max(1, size / 10)));
+            others.add(String.valueOf(i));
+        }
+        // Lists of ten, none empty, so that the recursion visits every element.
+        nested = Lists.newArrayList();
+        for (int i = 0; i < size; i += 10) {
+            nested.add(elements.subList(i, Math.min(size, i + 10)));
+        }
+    }
+
+    @Benchmark
+    public void getWindowIterator(final Blackhole blackhole) {
+        consume(CollectionUtils.getWindowIterator(elements), blackhole);
+    }
+
+    @Benchmark
+    public void getPaddedWindowIterator(final Blackhole blackhole) {
+        consume(CollectionUtils.getPaddedWindowIterator(elements), blackhole);
+    }
+
+    @Benchmark
+    public void getPairedIterator(final Blackhole blackhole) {
+        consume(CollectionUtils.getPairedIterator(elements, others), blackhole);
+    }
+
+    @Benchmark
+    public boolean isNullOrEmptyRecursive() {
+        return CollectionUtils.isNullOrEmptyRecursive(nested);
+    }
+
+    private static void consume(final Iterator<?> iterator, final Blackhole blackhole) {
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.dilax.mobile.model.network.util.benchmark;
+
+import java.util.List;
+import java.util.Random;
+
+import org.joda.time.LocalTime;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Bean indexed by the benchmarks through lambdaj arguments. It is not final, so that lambdaj can proxy it.
+ */
+public class Departure {
+
+    private int stopId;
+
+    private Integer routeId;
+
+    private String vehicle;
+
+    private LocalTime time;
+
+    public Departure() {
+    }
+
+    public Departure(final int stopId, final Integer routeId, final String vehicle, final LocalTime time) {
+        this.stopId = stopId;
+        this.routeId = routeId;
+        this.vehicle = vehicle;
+        this.time = time;
+    }
+
+    /**
+     * Departures of a timetable with about a hundred departures per stop and ten per route, in random order.
+     */
+    public static List<Departure> create(final int size, final long seed) {
+        Random random = new Random(seed);
+        int stopCount = Math.max(1, size / 100);
+        int routeCount = Math.max(1, size / 10);
+        List<Departure> departures = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            departures.add(new Departure(random.nextInt(stopCount), random.nextInt(routeCount), "V"
+                + random.nextInt(1000), LocalTime.fromMillisOfDay(random.nextInt(86400) * 1000L)));
+        }
+        return departures;
+    }
+
+    public int getStopId() {
+        return stopId;
+    }
+
+    public Integer getRouteId() {
+        return routeId;
+    }
+
+    public String getVehicle() {
+        return vehicle;
+    }
+
+    public LocalTime getTime() {
+        return time;
+    }
+
+}
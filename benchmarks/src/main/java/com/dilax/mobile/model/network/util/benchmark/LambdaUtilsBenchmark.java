@@ -0,0 +1,98 @@
+package com.dilax.mobile.model.network.util.benchmark;
+
+import static ch.lambdaj.Lambda.on;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dilax.mobile.model.network.util.LambdaUtils;
+import com.dilax.mobile.model.network.util.Pair;
+import com.dilax.mobile.model.network.util.TwinPair;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+
+/**
+ * The lambdaj arguments are created in every invocation, as callers do. Results are declared with the types of the
+ * baseline, so that the class compiles against both builds. multiIndexPreservingOrder(), quadratic in the baseline, is
+ * in QuadraticBaselineBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g", "-XX:+IgnoreUnrecognizedVMOptions",
+    "--add-opens=java.base/java.lang=ALL-UNNAMED" })
+public class LambdaUtilsBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    private int size;
+
+    private List<Departure> departures;
+
+    /** The same departures, all at one stop. */
+    private List<Departure> departuresOfStop;
+
+    @Setup
+    public void setUp() {
+        departures = Departure.create(size, 42);
+        departuresOfStop = Lists.newArrayListWithCapacity(size);
+        for (Departure departure : departures) {
+            departuresOfStop.add(new Departure(0, departure.getRouteId(), departure.getVehicle(), departure.getTime()));
+        }
+    }
+
+    @Benchmark
+    public Multimap<Integer, Departure> multiIndex() {
+        return LambdaUtils.multiIndex(departures, on(Departure.class).getRouteId());
+    }
+
+    @Benchmark
+    public Multimap<Integer, LocalTime> multiIndexAndConvert() {
+        return LambdaUtils.multiIndexAndConvert(departures, on(Departure.class).getRouteId(),
+            on(Departure.class).getTime());
+    }
+
+    @Benchmark
+    public Multimap<Integer, LocalTime> multiIndexAndConvertOrdered() {
+        return LambdaUtils.multiIndexAndConvertOrdered(departures, on(Departure.class).getRouteId(),
+            on(Departure.class).getTime());
+    }
+
+    @Benchmark
+    public Set<String> extractDistinct() {
+        return LambdaUtils.extractDistinct(departures, on(Departure.class).getVehicle());
+    }
+
+    @Benchmark
+    public Integer extractUnique() {
+        return LambdaUtils.extractUnique(departuresOfStop, on(Departure.class).getStopId());
+    }
+
+    @Benchmark
+    public Collection<Pair<Integer, LocalTime>> extractPairs() {
+        return LambdaUtils.extractPairs(departures, on(Departure.class).getRouteId(), on(Departure.class).getTime());
+    }
+
+    @Benchmark
+    public Collection<TwinPair<Integer>> extractTwinPairs() {
+        return LambdaUtils.extractTwinPairs(departures, on(Departure.class).getRouteId(),
+            on(Departure.class).getRouteId());
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.dilax.mobile.model.network.util.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.helpers.NOPLogger;
+
+import com.dilax.mobile.model.network.util.LoggerWrapper;
+/**
+ * Logging calls on a logger with every level disabled, which should cost neither formatting nor allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+public class LoggerWrapperBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    private int size;
+
+    private LoggerWrapper log;
+
+    private Integer[] values;
+
+    @Setup
+    public void setUp() {
+        log = new LoggerWrapper(NOPLogger.NOP_LOGGER);
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+    }
+
+    @Benchmark
+    public void debugTwoArguments() {
+        for (int i = 0; i < size; i++) {
+            log.debug("Value {} before {}", values[i], values[size - 1 - i]);
+        }
+    }
+
+    @Benchmark
+    public void debugVarargs() {
+        for (int i = 0; i < size; i++) {
+            log.debug("Values {}, {}, {}, {}", values[i], values[i], values[i], values[i]);
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.dilax.mobile.model.network.util.benchmark;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dilax.mobile.model.network.util.Pair;
+import com.google.common.collect.Sets;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+public class PairBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    private int size;
+
+    private Pair<Integer, String>[] pairs;
+
+    /** Equal to the pairs, but other objects. */
+    private Pair<Integer, String>[] copies;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Random random = new Random(42);
+        pairs = (Pair<Integer, String>[]) new Pair<?, ?>[size];
+        copies = (Pair<Integer, String>[]) new Pair<?, ?>[size];
+        for (int i = 0; i < size; i++) {
+            int first = random.nextInt(size);
+            String second = "S" + random.nextInt(100);
+            pairs[i] = Pair.of(first, second);
+            copies[i] = Pair.of(first, new String(second));
+        }
+    }
+
+    @Benchmark
+    public int equalsCopies() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (pairs[i].equals(copies[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Hashes every pair, which is cached after the first invocation, as in the maps holding them.
+     */
+    @Benchmark
+    public int hashCodes() {
+        int hash = 0;
+        for (int i = 0; i < size; i++) {
+            hash += pairs[i].hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Hashes fresh pairs and compares the colliding ones.
+     */
+    @Benchmark
+    public Set<Pair<Integer, String>> addToHashSet() {
+        Set<Pair<Integer, String>> set = Sets.newHashSetWithExpectedSize(size);
+        for (int i = 0; i < size; i++) {
+            set.add(Pair.of(pairs[i].getFirst(), pairs[i].getSecond()));
+        }
+        return set;
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.dilax.mobile.model.network.util.benchmark;
+
+import static ch.lambdaj.Lambda.on;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dilax.mobile.model.network.util.CollectionUtils;
+import com.dilax.mobile.model.network.util.LambdaUtils;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Ordering;
+
+/**
+ * Methods whose baseline is quadratic, with sizes up to the ones the baseline still runs in seconds: at the sizes of
+ * the other benchmarks a baseline comparison would never end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g", "-XX:+IgnoreUnrecognizedVMOptions",
+    "--add-opens=java.base/java.lang=ALL-UNNAMED" })
+public class QuadraticBaselineBenchmark {
+
+    @Param({ "10", "1000", "10000", "100000" })
+    private int size;
+
+    private List<Integer> elements;
+
+    private List<Departure> departures;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        elements = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            elements.add(random.nextInt(Math.max(1, size / 10)));
+        }
+        departures = Departure.create(size, 42);
+    }
+
+    @Benchmark
+    public Multimap<Integer, Integer> getFrequencyMultimap() {
+        return CollectionUtils.getFrequencyMultimap(elements, Ordering.<Integer> natural().reverse());
+    }
+
+    @Benchmark
+    public Collection<Integer> getMostFrequentElements() {
+        return CollectionUtils.getMostFrequentElements(elements);
+    }
+
+    @Benchmark
+    public Map<Integer, List<Departure>> multiIndexPreservingOrder() {
+        return LambdaUtils.multiIndexPreservingOrder(departures, on(Departure.class).getRouteId());
+    }
+
+}
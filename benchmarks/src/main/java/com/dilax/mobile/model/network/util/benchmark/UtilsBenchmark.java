@@ -0,0 +1,120 @@
+package com.dilax.mobile.model.network.util.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dilax.mobile.model.network.util.Utils;
+import com.google.common.collect.Lists;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+public class UtilsBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    private int size;
+
+    /** Ascending dates in runs of consecutive days separated by gaps. */
+    private List<LocalDate> dates;
+
+    private LocalDate[] dateStarts;
+
+    private LocalDate[] dateEnds;
+
+    private DateTime[] dateTimeStarts;
+
+    private DateTime[] dateTimeEnds;
+
+    private List<Integer> elements;
+
+    private Integer middleElement;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        dates = Lists.newArrayListWithCapacity(size);
+        LocalDate date = new LocalDate(2000, 1, 1);
+        for (int i = 0; i < size; i++) {
+            dates.add(date);
+            date = date.plusDays(random.nextInt(4) == 0 ? 2 + random.nextInt(5) : 1);
+        }
+        dateStarts = new LocalDate[size];
+        dateEnds = new LocalDate[size];
+        dateTimeStarts = new DateTime[size];
+        dateTimeEnds = new DateTime[size];
+        for (int i = 0; i < size; i++) {
+            dateStarts[i] = new LocalDate(2000, 1, 1).plusDays(random.nextInt(3650));
+            dateEnds[i] = dateStarts[i].plusDays(random.nextInt(365));
+            dateTimeStarts[i] = dateStarts[i].toDateTimeAtStartOfDay().plusMinutes(random.nextInt(1440));
+            dateTimeEnds[i] = dateTimeStarts[i].plusMinutes(random.nextInt(100000));
+        }
+        elements = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            elements.add(i);
+        }
+        middleElement = size / 2;
+    }
+
+    @Benchmark
+    public String generateCodeFromDates() {
+        return Utils.generateCodeFromDates(dates);
+    }
+
+    /**
+     * Every period against the next one.
+     */
+    @Benchmark
+    public int doTimePeriodsOverlapLocalDate() {
+        int count = 0;
+        for (int i = 1; i < size; i++) {
+            if (Utils.doTimePeriodsOverlap(dateStarts[i - 1], dateEnds[i - 1], dateStarts[i], dateEnds[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Every period against the next one.
+     */
+    @Benchmark
+    public int doTimePeriodsOverlapDateTime() {
+        int count = 0;
+        for (int i = 1; i < size; i++) {
+            if (Utils.doTimePeriodsOverlap(dateTimeStarts[i - 1], dateTimeEnds[i - 1], dateTimeStarts[i],
+                dateTimeEnds[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public Integer getElementBefore() {
+        return Utils.getElementBefore(middleElement, elements);
+    }
+
+    @Benchmark
+    public Integer getElementAfter() {
+        return Utils.getElementAfter(middleElement, elements);
+    }
+
+}
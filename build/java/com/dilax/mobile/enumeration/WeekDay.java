@@ -0,0 +1,10 @@
+package com.dilax.mobile.enumeration;
+
+/**
+ * Build copy of the enumeration of the network suite, only to compile this module on its own.
+ */
+public enum WeekDay {
+
+    MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY, SATURDAY, SUNDAY;
+
+}